@@ -1,45 +1,292 @@
 package info.kgeorgiy.ja.treshchev.arrayset;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
-public class ArraySet<T> extends AbstractSet<T> implements SortedSet<T> {
+/**
+ * Immutable {@link NavigableSet} stored in a sorted array.
+ * Views returned by {@code subSet}, {@code headSet}, {@code tailSet} and {@code descendingSet}
+ * are index ranges over the same array, so they are created in O(log n) without copying
+ * and their size is known in O(1).
+ * Large collections are sorted and deduplicated in parallel on construction,
+ * so their comparator must be safe to call from several threads.
+ * Lookups use binary search over the sorted array,
+ * narrowed down first by a small search tree in Eytzinger order
+ * for sets created by {@link #withEytzingerLayout()}.
+ * Sets created by {@link #withHashIndex()} find contained elements by hash in O(1) expected time.
+ *
+ * @param <T> type of elements.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public class ArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
 
     private final List<T> arraySet;
     private final Comparator<T> comparator;
-    private final int size;
+    private final int from;
+    private final int to;
+    private final EytzingerLayout<T> layout;
+    private final HashIndex<T> hashIndex;
 
     public ArraySet() {
-        this.comparator = null;
-        this.arraySet = new ArrayList<>();
-        this.size = 0;
+        this(Collections.emptyList(), null);
     }
 
+    /**
+     * Creates set of elements of {@code collection} in natural ordering.
+     *
+     * @param collection elements of the set.
+     * @see #ArraySet(Collection, Comparator)
+     */
     public ArraySet(Collection<T> collection) {
         this(collection, null);
     }
 
     private ArraySet(List<T> arrayList, Comparator<T> comparator) {
+        this(arrayList, comparator, 0, arrayList.size(), null, null);
+    }
+
+    private ArraySet(List<T> arrayList, Comparator<T> comparator, int from, int to,
+                     EytzingerLayout<T> layout, HashIndex<T> hashIndex) {
         this.arraySet = arrayList;
         this.comparator = comparator;
-        this.size = arrayList.size();
+        this.from = from;
+        this.to = to;
+        this.layout = layout;
+        this.hashIndex = hashIndex;
     }
 
+    /**
+     * Creates set of elements of {@code collection} sorted by {@code comparator}.
+     * Of equal elements the first one in iteration order of {@code collection} is kept.
+     * Collections of at least 65536 elements are sorted and deduplicated in parallel
+     * in the common {@link java.util.concurrent.ForkJoinPool}, so {@code comparator},
+     * or {@code compareTo} of elements for natural ordering, must be safe to call from several threads.
+     *
+     * @param collection elements of the set.
+     * @param comparator order of elements, {@code null} for natural ordering.
+     */
     public ArraySet(Collection<T> collection, Comparator<T> comparator) {
-        this.comparator = comparator;
-        TreeSet<T> sortedCollection = new TreeSet<>(comparator);
-        sortedCollection.addAll(collection);
-        this.arraySet = new ArrayList<>(sortedCollection);
-        this.size = this.arraySet.size();
+        this(sortedDistinct(collection, comparator), comparator);
+    }
+
+    /**
+     * Creates set over {@code sorted} array without copying or sorting it.
+     * Array must be strictly increasing by {@code comparator} and must not be modified afterwards.
+     *
+     * @param sorted     strictly increasing elements.
+     * @param comparator order of elements, {@code null} for natural ordering.
+     * @param <T>        type of elements.
+     * @return set backed by {@code sorted}.
+     */
+    public static <T> ArraySet<T> ofSorted(T[] sorted, Comparator<T> comparator) {
+        assert isIncreasing(sorted, true, comparator, false) : "Elements are not strictly increasing";
+        return new ArraySet<>(Arrays.asList(sorted), comparator);
+    }
+
+    static <T> ArraySet<T> ofSortedList(List<T> sorted, Comparator<T> comparator) {
+        return new ArraySet<>(sorted, comparator);
+    }
+
+    /**
+     * Returns set of the same elements that searches them in Eytzinger layout.
+     * Top levels of the binary search tree are copied in breadth-first order,
+     * so the first steps of every search hit the same few cache lines.
+     * The copy is bounded by a few thousand elements and takes O(n) time to build.
+     * Iteration order and views are not affected, views of the returned set share its layout.
+     *
+     * @return set searching elements in Eytzinger layout.
+     */
+    public ArraySet<T> withEytzingerLayout() {
+        if (this.layout != null) {
+            return this;
+        }
+        final List<T> elements = elements();
+        return new ArraySet<>(elements, this.comparator, 0, elements.size(),
+                new EytzingerLayout<>(elements, this.comparator), elements == this.arraySet ? this.hashIndex : null);
+    }
+
+    /**
+     * Returns set of the same elements with hash index of their positions.
+     * Contained elements are then found in O(1) expected time instead of binary search,
+     * which speeds up {@code contains} and navigation from contained elements.
+     * Elements must have {@code equals} and {@code hashCode} consistent with the comparator of this set.
+     * Index takes from 8 to 16 bytes per element, see {@link #getHashIndexBytes()},
+     * views of the returned set share it.
+     *
+     * @return set with hash index.
+     */
+    public ArraySet<T> withHashIndex() {
+        if (this.hashIndex != null) {
+            return this;
+        }
+        final List<T> elements = elements();
+        return new ArraySet<>(elements, this.comparator, 0, elements.size(),
+                elements == this.arraySet ? this.layout : null, new HashIndex<>(elements));
+    }
+
+    /**
+     * Returns memory taken by hash index of this set.
+     *
+     * @return size of hash index in bytes, or {@code 0} if set has no hash index.
+     */
+    public long getHashIndexBytes() {
+        return this.hashIndex == null ? 0 : this.hashIndex.getBytes();
+    }
+
+    private List<T> elements() {
+        return this.from == 0 && this.to == this.arraySet.size()
+                ? this.arraySet
+                : this.arraySet.subList(this.from, this.to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> sortedDistinct(Collection<T> collection, Comparator<T> comparator) {
+        final T[] elements = (T[]) collection.toArray();
+        if (collection instanceof SortedSet<?> sortedSet && Objects.equals(sortedSet.comparator(), comparator)) {
+            return Arrays.asList(elements);
+        }
+        final boolean parallel = elements.length >= PARALLEL_THRESHOLD;
+        // sorted input is recognized in one pass, nearly sorted input is merged by runs
+        if (!isIncreasing(elements, false, comparator, parallel)) {
+            if (parallel) {
+                parallelSort(elements, comparator);
+            } else {
+                Arrays.sort(elements, comparator);
+            }
+        }
+        return Arrays.asList(parallel ? parallelDistinct(elements, comparator) : distinct(elements, comparator));
+    }
+
+    // parallel sort is not stable, so equal elements are ordered by their positions explicitly
+    @SuppressWarnings("unchecked")
+    private static <T> void parallelSort(T[] elements, Comparator<T> comparator) {
+        final Positioned<T>[] positioned = (Positioned<T>[]) new Positioned<?>[elements.length];
+        IntStream.range(0, elements.length).parallel()
+                .forEach(i -> positioned[i] = new Positioned<>(elements[i], i));
+        Arrays.parallelSort(positioned, (first, second) -> {
+            final int compared = compare(first.element(), second.element(), comparator);
+            return compared != 0 ? compared : Integer.compare(first.position(), second.position());
+        });
+        IntStream.range(0, elements.length).parallel()
+                .forEach(i -> elements[i] = positioned[i].element());
+    }
+
+    private record Positioned<T>(T element, int position) {
+    }
+
+    private static <T> T[] distinct(T[] sorted, Comparator<T> comparator) {
+        int size = Math.min(1, sorted.length);
+        for (int i = 1; i < sorted.length; i++) {
+            if (compare(sorted[size - 1], sorted[i], comparator) != 0) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    // blocks count their first occurrences, then copy them to offsets given by prefix sums of the counts
+    @SuppressWarnings("unchecked")
+    private static <T> T[] parallelDistinct(T[] sorted, Comparator<T> comparator) {
+        final int blockLength = PARALLEL_THRESHOLD / 4;
+        final int blocks = (sorted.length + blockLength - 1) / blockLength;
+        final int[] offsets = new int[blocks + 1];
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int count = 0;
+            for (int i = block * blockLength; i < Math.min(sorted.length, (block + 1) * blockLength); i++) {
+                if (isFirstOccurrence(sorted, i, comparator)) {
+                    count++;
+                }
+            }
+            offsets[block + 1] = count;
+        });
+        Arrays.parallelPrefix(offsets, Integer::sum);
+        if (offsets[blocks] == sorted.length) {
+            return sorted;
+        }
+
+        final T[] result = (T[]) new Object[offsets[blocks]];
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int position = offsets[block];
+            for (int i = block * blockLength; i < Math.min(sorted.length, (block + 1) * blockLength); i++) {
+                if (isFirstOccurrence(sorted, i, comparator)) {
+                    result[position++] = sorted[i];
+                }
+            }
+        });
+        return result;
+    }
+
+    private static <T> boolean isFirstOccurrence(T[] sorted, int index, Comparator<T> comparator) {
+        return index == 0 || compare(sorted[index - 1], sorted[index], comparator) != 0;
+    }
+
+    private static <T> boolean isIncreasing(T[] elements, boolean strictly, Comparator<T> comparator, boolean parallel) {
+        final int bound = strictly ? 0 : 1;
+        if (parallel) {
+            return IntStream.range(1, elements.length).parallel()
+                    .allMatch(i -> compare(elements[i - 1], elements[i], comparator) < bound);
+        }
+        for (int i = 1; i < elements.length; i++) {
+            if (compare(elements[i - 1], elements[i], comparator) >= bound) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> int compare(T first, T second, Comparator<T> comparator) {
+        return comparator == null ? ((Comparable<? super T>) first).compareTo(second) : comparator.compare(first, second);
     }
 
     @Override
     public Iterator<T> iterator() {
-        return this.arraySet.iterator();
+        return this.arraySet.subList(this.from, this.to).iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new RangeSpliterator<>(this.arraySet, this.from, this.to, this.comparator);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        final ListIterator<T> iterator = this.arraySet.listIterator(this.to);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.previousIndex() >= from;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return iterator.previous();
+            }
+        };
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new DescendingSet<>(this);
     }
 
     @Override
     public int size() {
-        return this.size;
+        return this.to - this.from;
+    }
+
+    T element(int index) {
+        return this.arraySet.get(this.from + index);
+    }
+
+    Comparator<T> order() {
+        return this.comparator;
     }
 
     @Override
@@ -47,63 +294,224 @@ public class ArraySet<T> extends AbstractSet<T> implements SortedSet<T> {
         return this.comparator;
     }
 
-    private int getIndex(int index) {
-        return index < 0 ? -index - 1 : index;
+    private int indexOf(T element) {
+        if (this.hashIndex != null) {
+            final int index = this.hashIndex.indexOf(element);
+            if (index >= 0) {
+                return index < this.from ? -this.from - 1 : index >= this.to ? -this.to - 1 : index;
+            }
+        }
+        if (this.layout != null) {
+            final int index = Math.min(Math.max(this.layout.lowerBound(element), this.from), this.to);
+            return index < this.to && compare(this.arraySet.get(index), element, this.comparator) == 0
+                    ? index
+                    : -index - 1;
+        }
+        int low = this.from;
+        int high = this.to - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int compared = compare(this.arraySet.get(middle), element, this.comparator);
+            if (compared < 0) {
+                low = middle + 1;
+            } else if (compared > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    private int lowerIndex(T element) {
+        final int index = indexOf(element);
+        return index >= 0 ? index - 1 : -index - 2;
     }
 
-    private int indexOf(T element) {
-        return Collections.binarySearch(this.arraySet, element, this.comparator);
+    private int floorIndex(T element) {
+        final int index = indexOf(element);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private int ceilingIndex(T element) {
+        final int index = indexOf(element);
+        return index >= 0 ? index : -index - 1;
     }
 
+    private int higherIndex(T element) {
+        final int index = indexOf(element);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private T get(int index) {
+        return this.from <= index && index < this.to ? this.arraySet.get(index) : null;
+    }
+
+    @Override
     @SuppressWarnings("unchecked")
     public boolean contains(Object element) {
+        if (this.hashIndex != null) {
+            final int index = this.hashIndex.indexOf(element);
+            return this.from <= index && index < this.to;
+        }
         return indexOf((T) element) >= 0;
     }
 
+    @Override
+    public boolean containsAll(Collection<?> collection) {
+        if (collection instanceof ArraySet<?> set && Objects.equals(set.comparator(), this.comparator)) {
+            @SuppressWarnings("unchecked") final ArraySet<T> other = (ArraySet<T>) set;
+            return ArraySets.containsAll(this, other);
+        }
+        return super.containsAll(collection);
+    }
 
-    private SortedSet<T> subSet(int indexFrom, int indexTo) {
-        return new ArraySet<>(this.arraySet.subList(indexFrom, indexTo), this.comparator);
+    @Override
+    public T lower(T element) {
+        return get(lowerIndex(element));
     }
 
     @Override
-    public SortedSet<T> subSet(T fromElement, T toElement) throws IllegalArgumentException {
-        if (this.comparator.compare(fromElement, toElement) > 0) {
-            throw new IllegalArgumentException();
-        }
-        return subSet(getIndex(indexOf(fromElement)), getIndex(indexOf(toElement)));
+    public T floor(T element) {
+        return get(floorIndex(element));
     }
 
     @Override
-    public SortedSet<T> headSet(T toElement) {
-        if (this.size == 0) {
-            return new TreeSet<>(this.comparator);
-        }
-        return subSet(0, getIndex(indexOf(toElement)));
+    public T ceiling(T element) {
+        return get(ceilingIndex(element));
+    }
+
+    @Override
+    public T higher(T element) {
+        return get(higherIndex(element));
+    }
+
+    @Override
+    public T pollFirst() {
+        throw new UnsupportedOperationException("ArraySet is immutable");
+    }
+
+    @Override
+    public T pollLast() {
+        throw new UnsupportedOperationException("ArraySet is immutable");
+    }
+
+    private ArraySet<T> subSet(int indexFrom, int indexTo) {
+        return new ArraySet<>(this.arraySet, this.comparator, indexFrom, Math.max(indexFrom, indexTo),
+                this.layout, this.hashIndex);
     }
 
     @Override
-    public SortedSet<T> tailSet(T fromElement) {
-        if (this.size == 0) {
-            return new TreeSet<>(this.comparator);
+    public ArraySet<T> subSet(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive) {
+        if (compare(fromElement, toElement, this.comparator) > 0) {
+            throw new IllegalArgumentException("fromElement is greater than toElement");
         }
-        return subSet(getIndex(indexOf(fromElement)), this.size);
+        return subSet(
+                fromInclusive ? ceilingIndex(fromElement) : higherIndex(fromElement),
+                (toInclusive ? floorIndex(toElement) : lowerIndex(toElement)) + 1
+        );
+    }
+
+    @Override
+    public ArraySet<T> headSet(T toElement, boolean inclusive) {
+        return subSet(this.from, (inclusive ? floorIndex(toElement) : lowerIndex(toElement)) + 1);
+    }
+
+    @Override
+    public ArraySet<T> tailSet(T fromElement, boolean inclusive) {
+        return subSet(inclusive ? ceilingIndex(fromElement) : higherIndex(fromElement), this.to);
+    }
+
+    @Override
+    public ArraySet<T> subSet(T fromElement, T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public ArraySet<T> headSet(T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public ArraySet<T> tailSet(T fromElement) {
+        return tailSet(fromElement, true);
     }
 
     @Override
     public T first() throws NoSuchElementException {
-        if (this.size == 0) {
+        if (this.from == this.to) {
             throw new NoSuchElementException();
         }
-        return this.arraySet.get(0);
+        return this.arraySet.get(this.from);
     }
 
     @Override
     public T last() throws NoSuchElementException {
-        if (this.size == 0) {
+        if (this.from == this.to) {
             throw new NoSuchElementException();
         }
-        return this.arraySet.get(arraySet.size() - 1);
+        return this.arraySet.get(this.to - 1);
     }
 
+    /**
+     * Spliterator over a range of the sorted list, splitting it exactly in halves.
+     */
+    private static final class RangeSpliterator<T> implements Spliterator<T> {
 
+        private final List<T> elements;
+        private final Comparator<T> comparator;
+        private int index;
+        private final int fence;
+
+        RangeSpliterator(List<T> elements, int index, int fence, Comparator<T> comparator) {
+            this.elements = elements;
+            this.index = index;
+            this.fence = fence;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (this.index >= this.fence) {
+                return false;
+            }
+            action.accept(this.elements.get(this.index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            for (; this.index < this.fence; this.index++) {
+                action.accept(this.elements.get(this.index));
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final int middle = (this.index + this.fence) >>> 1;
+            if (middle <= this.index) {
+                return null;
+            }
+            final Spliterator<T> prefix = new RangeSpliterator<>(this.elements, this.index, middle, this.comparator);
+            this.index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return this.comparator;
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import info.kgeorgiy.ja.treshchev.benchmark.Benchmark;
+
+import java.util.Arrays;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Micro benchmark of lookups in {@link ArraySet} with plain binary search, with Eytzinger layout
+ * and with hash index.
+ *
+ * Sets of even numbers of several sizes are searched for random keys, so about a half of lookups are hits.
+ *
+ * Usage: {@code ArraySetBenchmark [maximal size of set]}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public class ArraySetBenchmark {
+
+    private static final int LOOKUPS = 1 << 20;
+
+    /**
+     * Runs all benchmarks and prints results to {@link System#out}.
+     *
+     * @param args optional maximal size of set.
+     */
+    public static void main(final String[] args) {
+        final int maxSize;
+        try {
+            maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 23;
+        } catch (NumberFormatException e) {
+            System.err.println("Usage: ArraySetBenchmark [maximal size of set]");
+            return;
+        }
+
+        for (int size = 1 << 10; size <= maxSize; size <<= 3) {
+            final Integer[] elements = new Integer[size];
+            Arrays.setAll(elements, i -> 2 * i);
+            final ArraySet<Integer> sorted = ArraySet.ofSorted(elements, null);
+            final ArraySet<Integer> eytzinger = sorted.withEytzingerLayout();
+            final ArraySet<Integer> hashed = sorted.withHashIndex();
+            System.out.printf("%-10d hash index %.1f bytes/element%n",
+                    size, (double) hashed.getHashIndexBytes() / size);
+
+            final Random random = new Random(size);
+            final Integer[] keys = new Integer[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) {
+                keys[i] = random.nextInt(2 * size);
+            }
+
+            measure(size, "contains", keys, sorted, eytzinger, hashed, (set, key) -> set.contains(key) ? 1 : 0);
+            measure(size, "ceiling", keys, sorted, eytzinger, hashed, (set, key) -> {
+                final Integer ceiling = set.ceiling(key);
+                return ceiling == null ? 0 : ceiling;
+            });
+        }
+    }
+
+    private static void measure(final int size,
+                                final String name,
+                                final Integer[] keys,
+                                final NavigableSet<Integer> sorted,
+                                final NavigableSet<Integer> eytzinger,
+                                final NavigableSet<Integer> hashed,
+                                final BiFunction<NavigableSet<Integer>, Integer, Integer> lookup) {
+        final double sortedNanos = measure(keys, sorted, lookup);
+        final double eytzingerNanos = measure(keys, eytzinger, lookup);
+        final double hashedNanos = measure(keys, hashed, lookup);
+        System.out.printf("%-10d %-9s sorted %8.1f ns/op, eytzinger %8.1f ns/op (x%.2f), hash %8.1f ns/op (x%.2f)%n",
+                size, name, sortedNanos, eytzingerNanos, sortedNanos / eytzingerNanos,
+                hashedNanos, sortedNanos / hashedNanos);
+    }
+
+    private static double measure(final Integer[] keys,
+                                  final NavigableSet<Integer> set,
+                                  final BiFunction<NavigableSet<Integer>, Integer, Integer> lookup) {
+        return Benchmark.measure(() -> {
+            long found = 0;
+            for (Integer key : keys) {
+                found += lookup.apply(set, key);
+            }
+            return found;
+        }) / keys.length;
+    }
+}
@@ -0,0 +1,190 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Set algebra over {@link ArraySet}s ordered by the same comparator.
+ *
+ * Operations merge both sorted arrays in one pass and produce a new {@link ArraySet} directly.
+ * When one side is much shorter, runs of the longer side are skipped by galloping
+ * (exponential then binary search), so the cost is O(m log(n / m)) for sizes {@code m <= n}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public final class ArraySets {
+
+    private ArraySets() {
+    }
+
+    /**
+     * Returns set of elements contained in {@code first} or in {@code second}.
+     * Of equal elements the one from {@code first} is kept.
+     *
+     * @param first  first set.
+     * @param second second set.
+     * @param <T>    type of elements.
+     * @return union of sets.
+     * @throws IllegalArgumentException if sets are ordered by different comparators.
+     */
+    public static <T> ArraySet<T> union(final ArraySet<T> first, final ArraySet<T> second) {
+        final Comparator<T> comparator = checkOrder(first, second);
+        final T[] result = newArray(first.size() + second.size());
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            final int compared = ArraySet.compare(first.element(i), second.element(j), comparator);
+            if (compared < 0) {
+                final int end = gallop(first, i, second.element(j), comparator);
+                size = copy(first, i, end, result, size);
+                i = end;
+            } else if (compared > 0) {
+                final int end = gallop(second, j, first.element(i), comparator);
+                size = copy(second, j, end, result, size);
+                j = end;
+            } else {
+                result[size++] = first.element(i++);
+                j++;
+            }
+        }
+        size = copy(first, i, first.size(), result, size);
+        size = copy(second, j, second.size(), result, size);
+        return ArraySet.ofSorted(trim(result, size), comparator);
+    }
+
+    /**
+     * Returns set of elements contained both in {@code first} and in {@code second}.
+     * Elements of {@code first} are kept.
+     *
+     * @param first  first set.
+     * @param second second set.
+     * @param <T>    type of elements.
+     * @return intersection of sets.
+     * @throws IllegalArgumentException if sets are ordered by different comparators.
+     */
+    public static <T> ArraySet<T> intersection(final ArraySet<T> first, final ArraySet<T> second) {
+        final Comparator<T> comparator = checkOrder(first, second);
+        final boolean firstShorter = first.size() <= second.size();
+        final ArraySet<T> shorter = firstShorter ? first : second;
+        final ArraySet<T> longer = firstShorter ? second : first;
+        final T[] result = newArray(shorter.size());
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < shorter.size() && j < longer.size(); i++) {
+            final T element = shorter.element(i);
+            j = gallop(longer, j, element, comparator);
+            if (j < longer.size() && ArraySet.compare(longer.element(j), element, comparator) == 0) {
+                result[size++] = firstShorter ? element : longer.element(j);
+                j++;
+            }
+        }
+        return ArraySet.ofSorted(trim(result, size), comparator);
+    }
+
+    /**
+     * Returns set of elements contained in {@code first} but not in {@code second}.
+     *
+     * @param first  set to take elements from.
+     * @param second set of excluded elements.
+     * @param <T>    type of elements.
+     * @return difference of sets.
+     * @throws IllegalArgumentException if sets are ordered by different comparators.
+     */
+    public static <T> ArraySet<T> difference(final ArraySet<T> first, final ArraySet<T> second) {
+        final Comparator<T> comparator = checkOrder(first, second);
+        final T[] result = newArray(first.size());
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.size()) {
+            j = gallop(second, j, first.element(i), comparator);
+            if (j == second.size()) {
+                size = copy(first, i, first.size(), result, size);
+                break;
+            }
+            if (ArraySet.compare(second.element(j), first.element(i), comparator) == 0) {
+                i++;
+                j++;
+            } else {
+                // everything before the next excluded element is kept
+                final int end = gallop(first, i, second.element(j), comparator);
+                size = copy(first, i, end, result, size);
+                i = end;
+            }
+        }
+        return ArraySet.ofSorted(trim(result, size), comparator);
+    }
+
+    /**
+     * Checks whether every element of {@code subset} is contained in {@code set}.
+     *
+     * @param set    set to search in.
+     * @param subset elements to search for.
+     * @param <T>    type of elements.
+     * @return {@code true} if {@code subset} is a subset of {@code set}.
+     * @throws IllegalArgumentException if sets are ordered by different comparators.
+     */
+    public static <T> boolean containsAll(final ArraySet<T> set, final ArraySet<T> subset) {
+        final Comparator<T> comparator = checkOrder(set, subset);
+        if (subset.size() > set.size()) {
+            return false;
+        }
+        int i = 0;
+        for (int j = 0; j < subset.size(); j++, i++) {
+            final T element = subset.element(j);
+            i = gallop(set, i, element, comparator);
+            if (i == set.size() || ArraySet.compare(set.element(i), element, comparator) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> Comparator<T> checkOrder(final ArraySet<T> first, final ArraySet<T> second) {
+        if (!Objects.equals(first.order(), second.order())) {
+            throw new IllegalArgumentException("Sets are ordered by different comparators");
+        }
+        return first.order();
+    }
+
+    /**
+     * Returns first index not less than {@code from} of element not less than {@code key}.
+     */
+    private static <T> int gallop(final ArraySet<T> set, int from, final T key, final Comparator<T> comparator) {
+        int bound = from;
+        int step = 1;
+        while (bound < set.size() && ArraySet.compare(set.element(bound), key, comparator) < 0) {
+            from = bound + 1;
+            bound += step;
+            step <<= 1;
+        }
+        int high = Math.min(bound, set.size());
+        while (from < high) {
+            final int middle = (from + high) >>> 1;
+            if (ArraySet.compare(set.element(middle), key, comparator) < 0) {
+                from = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return from;
+    }
+
+    private static <T> int copy(final ArraySet<T> set, final int from, final int to, final T[] result, int size) {
+        for (int i = from; i < to; i++) {
+            result[size++] = set.element(i);
+        }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newArray(final int length) {
+        return (T[]) new Object[length];
+    }
+
+    private static <T> T[] trim(final T[] array, final int size) {
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+}
@@ -0,0 +1,122 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.util.*;
+
+/**
+ * Reverse-order view of a {@link NavigableSet}.
+ * Every operation is delegated to the underlying set with reversed direction, nothing is copied.
+ *
+ * @param <T> type of elements.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class DescendingSet<T> extends AbstractSet<T> implements NavigableSet<T> {
+
+    private final NavigableSet<T> set;
+    private final Comparator<? super T> comparator;
+
+    DescendingSet(final NavigableSet<T> set) {
+        this.set = set;
+        this.comparator = Collections.reverseOrder(set.comparator());
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this.set.descendingIterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return this.set.iterator();
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return this.set;
+    }
+
+    @Override
+    public int size() {
+        return this.set.size();
+    }
+
+    @Override
+    public boolean contains(final Object element) {
+        return this.set.contains(element);
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return this.comparator;
+    }
+
+    @Override
+    public T lower(final T element) {
+        return this.set.higher(element);
+    }
+
+    @Override
+    public T floor(final T element) {
+        return this.set.ceiling(element);
+    }
+
+    @Override
+    public T ceiling(final T element) {
+        return this.set.floor(element);
+    }
+
+    @Override
+    public T higher(final T element) {
+        return this.set.lower(element);
+    }
+
+    @Override
+    public T pollFirst() {
+        return this.set.pollLast();
+    }
+
+    @Override
+    public T pollLast() {
+        return this.set.pollFirst();
+    }
+
+    @Override
+    public T first() {
+        return this.set.last();
+    }
+
+    @Override
+    public T last() {
+        return this.set.first();
+    }
+
+    @Override
+    public NavigableSet<T> subSet(final T fromElement, final boolean fromInclusive,
+                                  final T toElement, final boolean toInclusive) {
+        return this.set.subSet(toElement, toInclusive, fromElement, fromInclusive).descendingSet();
+    }
+
+    @Override
+    public NavigableSet<T> headSet(final T toElement, final boolean inclusive) {
+        return this.set.tailSet(toElement, inclusive).descendingSet();
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(final T fromElement, final boolean inclusive) {
+        return this.set.headSet(fromElement, inclusive).descendingSet();
+    }
+
+    @Override
+    public SortedSet<T> subSet(final T fromElement, final T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(final T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(final T fromElement) {
+        return tailSet(fromElement, true);
+    }
+}
@@ -0,0 +1,83 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Search index of a sorted list with the top of the search tree in Eytzinger (breadth-first) order.
+ *
+ * Node {@code k} has children {@code 2k} and {@code 2k + 1}, so the first levels of the tree
+ * that every search passes through are packed together at the start of the array and stay in cache.
+ * Only up to {@link #MAX_NODES} evenly spaced elements are placed into the tree:
+ * the tree narrows the search down to a block of the sorted list,
+ * which is finished by binary search among neighbouring elements.
+ * Eytzinger order of the whole list would scatter the last steps of every search across memory
+ * and be slower than plain binary search for large lists.
+ *
+ * @param <T> type of elements.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class EytzingerLayout<T> {
+
+    private static final int MAX_NODES = 1 << 12;
+
+    private final List<T> sorted;
+    private final Comparator<T> comparator;
+    private final int stride;
+    private final Object[] tree;
+    private final int[] ranks;
+
+    /**
+     * Builds index of {@code sorted}.
+     *
+     * @param sorted     strictly increasing elements.
+     * @param comparator order of elements, {@code null} for natural ordering.
+     */
+    EytzingerLayout(final List<T> sorted, final Comparator<T> comparator) {
+        this.sorted = sorted;
+        this.comparator = comparator;
+        this.stride = (sorted.size() + MAX_NODES - 1) / MAX_NODES;
+        final int nodes = this.stride == 0 ? 0 : sorted.size() / this.stride;
+        this.tree = new Object[nodes + 1];
+        this.ranks = new int[nodes + 1];
+        fill(0, 1);
+    }
+
+    // the i-th node in sorted order is the last element of the i-th block
+    private int fill(int index, final int node) {
+        if (node < this.tree.length) {
+            index = fill(index, 2 * node);
+            this.ranks[node] = (index + 1) * this.stride - 1;
+            this.tree[node] = this.sorted.get(this.ranks[node]);
+            index = fill(index + 1, 2 * node + 1);
+        }
+        return index;
+    }
+
+    /**
+     * Returns index of the first element not less than {@code key} in the sorted list.
+     *
+     * @param key element to search.
+     * @return index of the first element not less than {@code key}, or size of the list if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    int lowerBound(final T key) {
+        int node = 1;
+        while (node < this.tree.length) {
+            node = 2 * node + (ArraySet.compare((T) this.tree[node], key, this.comparator) < 0 ? 1 : 0);
+        }
+        // go back up to the last node where the search turned left, it is the first block end not less than key
+        node >>= Integer.numberOfTrailingZeros(~node) + 1;
+        int high = node == 0 ? this.sorted.size() : this.ranks[node];
+        int low = node == 0 ? (this.tree.length - 1) * this.stride : high - this.stride + 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (ArraySet.compare(this.sorted.get(middle), key, this.comparator) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,75 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Open-addressing hash table of positions of elements in a list.
+ *
+ * Table stores only {@code int} positions (shifted by one, zero marks an empty slot)
+ * and probes linearly, elements themselves are read from the list to confirm a match.
+ * Capacity is the smallest power of two holding the elements at load factor at most one half,
+ * so the table takes from 8 to 16 bytes per element.
+ *
+ * @param <T> type of elements.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class HashIndex<T> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final List<T> elements;
+    private final int[] slots;
+    private final int mask;
+
+    /**
+     * Builds index of distinct {@code elements}.
+     *
+     * @param elements distinct elements.
+     */
+    HashIndex(final List<T> elements) {
+        if (elements.size() > MAX_CAPACITY / 2) {
+            throw new IllegalArgumentException("Too many elements to index: " + elements.size());
+        }
+        this.elements = elements;
+        this.slots = new int[Math.max(2, Integer.highestOneBit(Math.max(1, 2 * elements.size() - 1)) << 1)];
+        this.mask = this.slots.length - 1;
+        for (int i = 0; i < elements.size(); i++) {
+            int slot = hash(elements.get(i)) & this.mask;
+            while (this.slots[slot] != 0) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.slots[slot] = i + 1;
+        }
+    }
+
+    private static int hash(final Object element) {
+        final int hash = Objects.hashCode(element) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns position of {@code element} in the list.
+     *
+     * @param element element to search.
+     * @return position of equal element, or {@code -1} if there is none.
+     */
+    int indexOf(final Object element) {
+        for (int slot = hash(element) & this.mask; this.slots[slot] != 0; slot = (slot + 1) & this.mask) {
+            final int index = this.slots[slot] - 1;
+            if (Objects.equals(this.elements.get(index), element)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns memory taken by the table.
+     *
+     * @return size of the table in bytes.
+     */
+    long getBytes() {
+        return (long) this.slots.length * Integer.BYTES;
+    }
+}
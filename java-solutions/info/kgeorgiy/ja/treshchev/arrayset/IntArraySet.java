@@ -0,0 +1,173 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable sorted set of {@code int} values stored in a sorted {@code int[]}.
+ * Lookups use primitive binary search without boxing,
+ * views returned by {@code subSet}, {@code headSet} and {@code tailSet} share the array of this set.
+ * Elements are ordered naturally, so {@link #comparator()} returns {@code null}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public class IntArraySet extends PrimitiveArraySet<Integer, IntArraySet> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int[] elements;
+
+    public IntArraySet() {
+        this(EMPTY, 0, 0);
+    }
+
+    public IntArraySet(final int... elements) {
+        this(distinct(sorted(elements.clone())), 0);
+    }
+
+    public IntArraySet(final Collection<Integer> collection) {
+        this(toArray(collection));
+    }
+
+    private IntArraySet(final int[] elements, final int from) {
+        this(elements, from, elements.length);
+    }
+
+    private IntArraySet(final int[] elements, final int from, final int to) {
+        super(from, to);
+        this.elements = elements;
+    }
+
+    private static int[] toArray(final Collection<Integer> collection) {
+        final int[] result = new int[collection.size()];
+        int i = 0;
+        for (int element : collection) {
+            result[i++] = element;
+        }
+        return result;
+    }
+
+    private static int[] sorted(final int[] elements) {
+        for (int i = 1; i < elements.length; i++) {
+            if (elements[i - 1] > elements[i]) {
+                Arrays.sort(elements);
+                break;
+            }
+        }
+        return elements;
+    }
+
+    private static int[] distinct(final int[] sorted) {
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    @Override
+    int search(final Integer element) {
+        return search((int) element);
+    }
+
+    private int search(final int element) {
+        return Arrays.binarySearch(this.elements, this.from, this.to, element);
+    }
+
+    @Override
+    Integer element(final int index) {
+        return this.elements[index];
+    }
+
+    @Override
+    IntArraySet view(final int from, final int to) {
+        return new IntArraySet(this.elements, from, to);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int index = from;
+
+            @Override
+            public boolean hasNext() {
+                return index < to;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index >= to) {
+                    throw new NoSuchElementException();
+                }
+                return elements[index++];
+            }
+        };
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt descendingIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int index = to;
+
+            @Override
+            public boolean hasNext() {
+                return index > from;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index <= from) {
+                    throw new NoSuchElementException();
+                }
+                return elements[--index];
+            }
+        };
+    }
+
+    public IntStream intStream() {
+        return Arrays.stream(this.elements, this.from, this.to);
+    }
+
+    public int[] toIntArray() {
+        return Arrays.copyOfRange(this.elements, this.from, this.to);
+    }
+
+    public boolean contains(final int element) {
+        return search(element) >= 0;
+    }
+
+    @Override
+    public boolean contains(final Object element) {
+        return element instanceof Integer value && contains((int) value);
+    }
+
+    public int firstInt() {
+        return this.elements[firstIndex()];
+    }
+
+    public int lastInt() {
+        return this.elements[lastIndex()];
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (other instanceof IntArraySet set) {
+            return Arrays.equals(this.elements, this.from, this.to, set.elements, set.from, set.to);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = this.from; i < this.to; i++) {
+            hash += Integer.hashCode(this.elements[i]);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,76 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encoding of fixed-width keys stored by {@link MappedArraySet}.
+ *
+ * @param <T> type of keys.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public interface KeyCodec<T> {
+
+    /**
+     * Codec of {@code int} keys, 4 bytes each.
+     */
+    KeyCodec<Integer> INT = new KeyCodec<>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public Integer read(final ByteBuffer buffer, final int position) {
+            return buffer.getInt(position);
+        }
+
+        @Override
+        public void write(final ByteBuffer buffer, final Integer key) {
+            buffer.putInt(key);
+        }
+    };
+
+    /**
+     * Codec of {@code long} keys, 8 bytes each.
+     */
+    KeyCodec<Long> LONG = new KeyCodec<>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public Long read(final ByteBuffer buffer, final int position) {
+            return buffer.getLong(position);
+        }
+
+        @Override
+        public void write(final ByteBuffer buffer, final Long key) {
+            buffer.putLong(key);
+        }
+    };
+
+    /**
+     * Returns length of encoded key in bytes.
+     *
+     * @return length of every key.
+     */
+    int width();
+
+    /**
+     * Decodes key at absolute {@code position} of {@code buffer} without changing its position.
+     *
+     * @param buffer   buffer to read from.
+     * @param position where key starts.
+     * @return decoded key.
+     */
+    T read(ByteBuffer buffer, int position);
+
+    /**
+     * Encodes {@code key} at the current position of {@code buffer} and advances it by {@link #width()}.
+     *
+     * @param buffer buffer to write to.
+     * @param key    key to encode.
+     */
+    void write(ByteBuffer buffer, T key);
+}
@@ -0,0 +1,173 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.util.*;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable sorted set of {@code long} values stored in a sorted {@code long[]}.
+ * Lookups use primitive binary search without boxing,
+ * views returned by {@code subSet}, {@code headSet} and {@code tailSet} share the array of this set.
+ * Elements are ordered naturally, so {@link #comparator()} returns {@code null}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public class LongArraySet extends PrimitiveArraySet<Long, LongArraySet> {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final long[] elements;
+
+    public LongArraySet() {
+        this(EMPTY, 0, 0);
+    }
+
+    public LongArraySet(final long... elements) {
+        this(distinct(sorted(elements.clone())), 0);
+    }
+
+    public LongArraySet(final Collection<Long> collection) {
+        this(toArray(collection));
+    }
+
+    private LongArraySet(final long[] elements, final int from) {
+        this(elements, from, elements.length);
+    }
+
+    private LongArraySet(final long[] elements, final int from, final int to) {
+        super(from, to);
+        this.elements = elements;
+    }
+
+    private static long[] toArray(final Collection<Long> collection) {
+        final long[] result = new long[collection.size()];
+        int i = 0;
+        for (long element : collection) {
+            result[i++] = element;
+        }
+        return result;
+    }
+
+    private static long[] sorted(final long[] elements) {
+        for (int i = 1; i < elements.length; i++) {
+            if (elements[i - 1] > elements[i]) {
+                Arrays.sort(elements);
+                break;
+            }
+        }
+        return elements;
+    }
+
+    private static long[] distinct(final long[] sorted) {
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    @Override
+    int search(final Long element) {
+        return search((long) element);
+    }
+
+    private int search(final long element) {
+        return Arrays.binarySearch(this.elements, this.from, this.to, element);
+    }
+
+    @Override
+    Long element(final int index) {
+        return this.elements[index];
+    }
+
+    @Override
+    LongArraySet view(final int from, final int to) {
+        return new LongArraySet(this.elements, from, to);
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int index = from;
+
+            @Override
+            public boolean hasNext() {
+                return index < to;
+            }
+
+            @Override
+            public long nextLong() {
+                if (index >= to) {
+                    throw new NoSuchElementException();
+                }
+                return elements[index++];
+            }
+        };
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong descendingIterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int index = to;
+
+            @Override
+            public boolean hasNext() {
+                return index > from;
+            }
+
+            @Override
+            public long nextLong() {
+                if (index <= from) {
+                    throw new NoSuchElementException();
+                }
+                return elements[--index];
+            }
+        };
+    }
+
+    public LongStream longStream() {
+        return Arrays.stream(this.elements, this.from, this.to);
+    }
+
+    public long[] toLongArray() {
+        return Arrays.copyOfRange(this.elements, this.from, this.to);
+    }
+
+    public boolean contains(final long element) {
+        return search(element) >= 0;
+    }
+
+    @Override
+    public boolean contains(final Object element) {
+        return element instanceof Long value && contains((long) value);
+    }
+
+    public long firstLong() {
+        return this.elements[firstIndex()];
+    }
+
+    public long lastLong() {
+        return this.elements[lastIndex()];
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (other instanceof LongArraySet set) {
+            return Arrays.equals(this.elements, this.from, this.to, set.elements, set.from, set.to);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = this.from; i < this.to; i++) {
+            hash += Long.hashCode(this.elements[i]);
+        }
+        return hash;
+    }
+}
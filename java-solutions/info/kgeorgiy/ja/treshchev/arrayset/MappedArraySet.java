@@ -0,0 +1,213 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * {@link ArraySet} of fixed-width keys stored off-heap in a memory-mapped file.
+ *
+ * File consists of a header with magic number, format version, key width and count of keys,
+ * followed by strictly increasing keys encoded by {@link KeyCodec}.
+ * Opening maps the file without reading it, pages are loaded by the OS on first access,
+ * and lookups are binary searches decoding only the visited keys.
+ * Files are written by {@link Builder} from keys supplied in increasing order.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public final class MappedArraySet {
+
+    private static final int MAGIC = 0x41534554;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 32;
+    private static final long INCOMPLETE = -1;
+    private static final int SEGMENT_LENGTH = 1 << 30;
+
+    private MappedArraySet() {
+    }
+
+    /**
+     * Opens set stored in {@code file}.
+     * Mapping stays valid after the file is closed and is released when the set is garbage collected.
+     *
+     * @param file       file written by {@link Builder}.
+     * @param codec      encoding of keys used to write the file.
+     * @param comparator order of keys used to write the file, {@code null} for natural ordering.
+     * @param <T>        type of keys.
+     * @return set backed by the mapped file.
+     * @throws IOException if file couldn't be read or is not a complete set of keys of this width.
+     */
+    public static <T> ArraySet<T> open(final Path file, final KeyCodec<T> codec, final Comparator<T> comparator)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_LENGTH || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a key set file: " + file);
+            }
+            final int width = header.getInt();
+            if (width != codec.width()) {
+                throw new IOException("Keys of " + file + " are " + width + " bytes wide, expected " + codec.width());
+            }
+            header.getInt();
+            final long count = header.getLong();
+            if (count == INCOMPLETE) {
+                throw new IOException("Key set " + file + " was not completely written");
+            }
+            if (count < 0 || count > Integer.MAX_VALUE || channel.size() != HEADER_LENGTH + count * width) {
+                throw new IOException("Key set " + file + " is corrupted");
+            }
+
+            final int keysPerSegment = SEGMENT_LENGTH / width;
+            final MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((count + keysPerSegment - 1) / keysPerSegment)];
+            for (int i = 0; i < segments.length; i++) {
+                final long first = (long) i * keysPerSegment;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH + first * width,
+                        Math.min(keysPerSegment, count - first) * width);
+            }
+            return ArraySet.ofSortedList(new MappedKeyList<>(segments, keysPerSegment, (int) count, codec), comparator);
+        }
+    }
+
+    /**
+     * Writes {@code keys} into {@code file}.
+     *
+     * @param file       where to write keys.
+     * @param codec      encoding of keys.
+     * @param comparator order of keys, {@code null} for natural ordering.
+     * @param keys       strictly increasing keys.
+     * @param <T>        type of keys.
+     * @return count of written keys.
+     * @throws IOException              if file couldn't be written.
+     * @throws IllegalArgumentException if keys are not strictly increasing.
+     */
+    public static <T> long write(final Path file,
+                                 final KeyCodec<T> codec,
+                                 final Comparator<T> comparator,
+                                 final Iterator<? extends T> keys) throws IOException {
+        try (Builder<T> builder = new Builder<>(file, codec, comparator)) {
+            while (keys.hasNext()) {
+                builder.add(keys.next());
+            }
+            builder.finish();
+            return builder.count;
+        }
+    }
+
+    /**
+     * Writer of key set files.
+     * Keys are appended one by one in increasing order, the header is completed only by {@link #finish()},
+     * so a file which writing was interrupted or failed is rejected by {@link MappedArraySet#open}.
+     *
+     * @param <T> type of keys.
+     */
+    public static final class Builder<T> implements Closeable {
+
+        private final FileChannel channel;
+        private final KeyCodec<T> codec;
+        private final Comparator<T> comparator;
+        private final ByteBuffer buffer;
+        private T last;
+        private long count;
+        private boolean rejected;
+        private boolean finished;
+
+        /**
+         * Creates builder writing into {@code file}, which is truncated.
+         *
+         * @param file       where to write keys.
+         * @param codec      encoding of keys.
+         * @param comparator order of keys, {@code null} for natural ordering.
+         * @throws IOException if file couldn't be created.
+         */
+        public Builder(final Path file, final KeyCodec<T> codec, final Comparator<T> comparator) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.codec = codec;
+            this.comparator = comparator;
+            this.buffer = ByteBuffer.allocateDirect(Math.max(1 << 16, HEADER_LENGTH + codec.width()));
+            writeHeader(INCOMPLETE);
+        }
+
+        /**
+         * Appends {@code key}.
+         *
+         * @param key key greater than all previously added keys.
+         * @throws IOException              if file couldn't be written.
+         * @throws IllegalArgumentException if key is not greater than the previous one.
+         * @throws IllegalStateException    if the file is already finished.
+         */
+        public void add(final T key) throws IOException {
+            if (this.finished) {
+                throw new IllegalStateException("Key set is already finished");
+            }
+            if (this.count > 0 && ArraySet.compare(this.last, key, this.comparator) >= 0) {
+                this.rejected = true;
+                throw new IllegalArgumentException("Keys are not strictly increasing: " + key + " after " + this.last);
+            }
+            if (this.count == Integer.MAX_VALUE) {
+                this.rejected = true;
+                throw new IllegalArgumentException("Too many keys");
+            }
+            if (this.buffer.remaining() < this.codec.width()) {
+                flush();
+            }
+            this.codec.write(this.buffer, key);
+            this.last = key;
+            this.count++;
+        }
+
+        /**
+         * Writes remaining keys and completes the header, after that the file could be opened.
+         *
+         * @throws IOException           if file couldn't be written.
+         * @throws IllegalStateException if a key was rejected.
+         */
+        public void finish() throws IOException {
+            if (this.rejected) {
+                throw new IllegalStateException("Key set with rejected key couldn't be finished");
+            }
+            if (this.finished) {
+                return;
+            }
+            flush();
+            this.channel.force(false);
+            this.channel.position(0);
+            writeHeader(this.count);
+            this.channel.force(true);
+            this.finished = true;
+        }
+
+        /**
+         * Closes the file. If the set wasn't {@link #finish() finished}, the file is left incomplete.
+         *
+         * @throws IOException if file couldn't be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+
+        private void writeHeader(final long keys) throws IOException {
+            this.buffer.putInt(MAGIC).putInt(VERSION).putInt(this.codec.width()).putInt(0).putLong(keys).putLong(0);
+            flush();
+        }
+
+        private void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.nio.MappedByteBuffer;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of fixed-width keys decoded on access from memory-mapped segments of a file.
+ * Keys never cross segment boundaries, reads use absolute positions, so the list is thread-safe.
+ *
+ * @param <T> type of keys.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class MappedKeyList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final MappedByteBuffer[] segments;
+    private final int keysPerSegment;
+    private final int size;
+    private final KeyCodec<T> codec;
+
+    MappedKeyList(final MappedByteBuffer[] segments, final int keysPerSegment, final int size, final KeyCodec<T> codec) {
+        this.segments = segments;
+        this.keysPerSegment = keysPerSegment;
+        this.size = size;
+        this.codec = codec;
+    }
+
+    @Override
+    public T get(final int index) {
+        Objects.checkIndex(index, this.size);
+        return this.codec.read(this.segments[index / this.keysPerSegment],
+                index % this.keysPerSegment * this.codec.width());
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+}
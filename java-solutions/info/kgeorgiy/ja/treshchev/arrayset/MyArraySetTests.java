@@ -0,0 +1,330 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+import java.util.stream.LongStream;
+
+/**
+ * Tests for {@link ArraySet} and its variants
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub</a>)
+ */
+public class MyArraySetTests {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static void assertFails(final Class<? extends Exception> expected, final Action action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            Assert.assertTrue("Unexpected " + e, expected.isInstance(e));
+            return;
+        }
+        Assert.fail("Expected " + expected.getName());
+    }
+
+    private Path file() {
+        return this.folder.getRoot().toPath().resolve("keys");
+    }
+
+    /**
+     * Testing that keys written to a file are read back
+     * @throws IOException if test file couldn't be written
+     */
+    @Test
+    public void testMappedRoundTrip() throws IOException {
+        final List<Long> keys = LongStream.range(0, 1000).map(i -> 3 * i - 1000).boxed().toList();
+        Assert.assertEquals(1000, MappedArraySet.write(file(), KeyCodec.LONG, null, keys.iterator()));
+        final ArraySet<Long> set = MappedArraySet.open(file(), KeyCodec.LONG, null);
+        Assert.assertEquals(keys, new ArrayList<>(set));
+        Assert.assertTrue(set.contains(-1000L));
+        Assert.assertFalse(set.contains(-999L));
+        Assert.assertEquals(Long.valueOf(2), set.ceiling(1L));
+    }
+
+    /**
+     * Testing that a file which writing failed in the middle couldn't be opened
+     */
+    @Test
+    public void testInterruptedWriteIsRejected() {
+        final Iterator<Integer> failing = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (this.next == 10) {
+                    throw new IllegalStateException("Source failed");
+                }
+                return this.next++;
+            }
+        };
+        assertFails(IllegalStateException.class, () -> MappedArraySet.write(file(), KeyCodec.INT, null, failing));
+        assertFails(IOException.class, () -> MappedArraySet.open(file(), KeyCodec.INT, null));
+    }
+
+    /**
+     * Testing that a file with keys out of order couldn't be opened
+     */
+    @Test
+    public void testRejectedKey() {
+        assertFails(IllegalArgumentException.class,
+                () -> MappedArraySet.write(file(), KeyCodec.INT, null, List.of(1, 3, 2).iterator()));
+        assertFails(IOException.class, () -> MappedArraySet.open(file(), KeyCodec.INT, null));
+    }
+
+    /**
+     * Testing that a builder which wasn't finished leaves the file incomplete
+     * @throws IOException if test file couldn't be written
+     */
+    @Test
+    public void testUnfinishedBuilder() throws IOException {
+        try (MappedArraySet.Builder<Integer> builder = new MappedArraySet.Builder<>(file(), KeyCodec.INT, null)) {
+            builder.add(1);
+            builder.add(2);
+        }
+        assertFails(IOException.class, () -> MappedArraySet.open(file(), KeyCodec.INT, null));
+    }
+
+    private static final int RANGE = 50;
+
+    private static List<Integer> randomElements(final Random random, final int size) {
+        return random.ints(size, -RANGE, RANGE).boxed().toList();
+    }
+
+    private static void assertNavigable(final NavigableSet<Integer> expected, final NavigableSet<Integer> actual,
+                                        final Random random, final int depth) {
+        assertNavigable(expected, actual, Integer::valueOf, random, depth);
+    }
+
+    private static <T> void assertNavigable(final NavigableSet<T> expected, final NavigableSet<T> actual,
+                                            final IntFunction<T> key, final Random random, final int depth) {
+        Assert.assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+        Assert.assertEquals(expected.size(), actual.size());
+        Assert.assertEquals(expected.isEmpty(), actual.isEmpty());
+        if (!expected.isEmpty()) {
+            Assert.assertEquals(expected.first(), actual.first());
+            Assert.assertEquals(expected.last(), actual.last());
+        }
+        for (int i = -RANGE - 1; i <= RANGE + 1; i++) {
+            final T probe = key.apply(i);
+            Assert.assertEquals(expected.contains(probe), actual.contains(probe));
+            Assert.assertEquals(expected.lower(probe), actual.lower(probe));
+            Assert.assertEquals(expected.floor(probe), actual.floor(probe));
+            Assert.assertEquals(expected.ceiling(probe), actual.ceiling(probe));
+            Assert.assertEquals(expected.higher(probe), actual.higher(probe));
+        }
+        if (depth == 0) {
+            return;
+        }
+        assertNavigable(expected.descendingSet(), actual.descendingSet(), key, random, depth - 1);
+
+        @SuppressWarnings("unchecked")
+        final Comparator<? super T> comparator = expected.comparator() == null
+                ? (Comparator<? super T>) Comparator.naturalOrder()
+                : expected.comparator();
+        for (int i = 0; i < 10; i++) {
+            final T a = key.apply(random.nextInt(-RANGE - 1, RANGE + 2));
+            final T b = key.apply(random.nextInt(-RANGE - 1, RANGE + 2));
+            final T from = comparator.compare(a, b) <= 0 ? a : b;
+            final T to = comparator.compare(a, b) <= 0 ? b : a;
+            final boolean fromInclusive = random.nextBoolean();
+            final boolean toInclusive = random.nextBoolean();
+            assertNavigable(expected.subSet(from, fromInclusive, to, toInclusive),
+                    actual.subSet(from, fromInclusive, to, toInclusive), key, random, 0);
+            assertNavigable(expected.headSet(to, toInclusive), actual.headSet(to, toInclusive), key, random, 0);
+            assertNavigable(expected.tailSet(from, fromInclusive), actual.tailSet(from, fromInclusive), key, random, 0);
+            Assert.assertEquals(new ArrayList<>(expected.subSet(from, to)), new ArrayList<>(actual.subSet(from, to)));
+            Assert.assertEquals(new ArrayList<>(expected.headSet(to)), new ArrayList<>(actual.headSet(to)));
+            Assert.assertEquals(new ArrayList<>(expected.tailSet(from)), new ArrayList<>(actual.tailSet(from)));
+        }
+    }
+
+    /**
+     * Testing that {@link ArraySet} and its views navigate like {@link TreeSet}
+     */
+    @Test
+    public void testLikeTreeSet() {
+        final Random random = new Random(8045702385702345702L);
+        for (final Comparator<Integer> comparator : Arrays.asList(null, Comparator.<Integer>reverseOrder())) {
+            for (int size : new int[]{0, 1, 2, 10, 100, 1000}) {
+                final List<Integer> elements = randomElements(random, size);
+                final NavigableSet<Integer> expected = new TreeSet<>(comparator);
+                expected.addAll(elements);
+                final ArraySet<Integer> actual = new ArraySet<>(elements, comparator);
+                assertNavigable(expected, actual, random, 2);
+                assertNavigable(expected, actual.withEytzingerLayout(), random, 2);
+                assertNavigable(expected, actual.withHashIndex(), random, 2);
+            }
+        }
+    }
+
+    /**
+     * Testing that {@link ArraySet} is immutable and rejects invalid ranges like {@link TreeSet}
+     */
+    @Test
+    public void testContract() {
+        final ArraySet<Integer> empty = new ArraySet<>();
+        assertFails(NoSuchElementException.class, empty::first);
+        assertFails(NoSuchElementException.class, empty::last);
+
+        final ArraySet<Integer> set = new ArraySet<>(List.of(3, 1, 2));
+        assertFails(IllegalArgumentException.class, () -> set.subSet(3, 1));
+        assertFails(UnsupportedOperationException.class, () -> set.add(4));
+        assertFails(UnsupportedOperationException.class, set::pollFirst);
+        assertFails(UnsupportedOperationException.class, () -> {
+            final Iterator<Integer> iterator = set.iterator();
+            iterator.next();
+            iterator.remove();
+        });
+        Assert.assertEquals(List.of(1, 2, 3), new ArrayList<>(set));
+    }
+
+    private static ArraySet<Integer> randomSet(final Random random, final Comparator<Integer> comparator) {
+        final int size = random.nextInt(4) == 0 ? random.nextInt(3) : random.nextInt(2 * RANGE);
+        final int from = random.nextInt(-RANGE, RANGE);
+        final int to = random.nextInt(from, RANGE + 1);
+        final ArraySet<Integer> set = new ArraySet<>(random.ints(size, from, to + 1).boxed().toList(), comparator);
+        // views are passed as well as whole sets
+        return random.nextBoolean() || set.isEmpty() ? set : set.tailSet(set.first(), false);
+    }
+
+    /**
+     * Testing that set algebra of {@link ArraySets} agrees with {@link TreeSet} operations
+     */
+    @Test
+    public void testSetAlgebra() {
+        final Random random = new Random(2309847502938475023L);
+        for (final Comparator<Integer> comparator : Arrays.asList(null, Comparator.<Integer>reverseOrder())) {
+            for (int i = 0; i < 1000; i++) {
+                final ArraySet<Integer> first = randomSet(random, comparator);
+                final ArraySet<Integer> second = randomSet(random, comparator);
+
+                final TreeSet<Integer> union = new TreeSet<>(comparator);
+                union.addAll(first);
+                union.addAll(second);
+                assertNavigable(union, ArraySets.union(first, second), random, 0);
+
+                final TreeSet<Integer> intersection = new TreeSet<>(first);
+                intersection.retainAll(second);
+                assertNavigable(intersection, ArraySets.intersection(first, second), random, 0);
+
+                final TreeSet<Integer> difference = new TreeSet<>(first);
+                difference.removeAll(second);
+                assertNavigable(difference, ArraySets.difference(first, second), random, 0);
+
+                Assert.assertEquals(first.containsAll(second), ArraySets.containsAll(first, second));
+                Assert.assertTrue(ArraySets.containsAll(ArraySets.union(first, second), second));
+                Assert.assertTrue(ArraySets.containsAll(first, ArraySets.intersection(first, second)));
+            }
+        }
+    }
+
+    /**
+     * Testing that set algebra keeps elements of the first set and rejects sets of different orders
+     */
+    @Test
+    public void testSetAlgebraOrder() {
+        final String upper = "A";
+        final ArraySet<String> first = new ArraySet<>(List.of(upper, "b"), String.CASE_INSENSITIVE_ORDER);
+        final ArraySet<String> second = new ArraySet<>(List.of("a", "c"), String.CASE_INSENSITIVE_ORDER);
+        Assert.assertSame(upper, ArraySets.union(first, second).first());
+        Assert.assertSame(upper, ArraySets.intersection(first, second).first());
+        Assert.assertEquals(List.of("b"), new ArrayList<>(ArraySets.difference(first, second)));
+
+        final ArraySet<String> natural = new ArraySet<>(List.of("a"));
+        assertFails(IllegalArgumentException.class, () -> ArraySets.union(first, natural));
+        assertFails(IllegalArgumentException.class, () -> ArraySets.containsAll(first, natural));
+    }
+
+    /**
+     * Testing that versions of {@link PersistentArraySet} are not changed by later updates
+     */
+    @Test
+    public void testPersistentVersions() {
+        final Random random = new Random(5702938457029384751L);
+        final List<PersistentArraySet<Integer>> versions = new ArrayList<>();
+        final List<List<Integer>> snapshots = new ArrayList<>();
+        final TreeSet<Integer> expected = new TreeSet<>();
+        PersistentArraySet<Integer> set = new PersistentArraySet<>();
+        // batches are large enough to split and merge chunks
+        for (int i = 0; i < 100; i++) {
+            final int count = random.nextInt(10) == 0 ? 3000 : random.nextInt(50);
+            final List<Integer> insertions = random.ints(count, -100 * RANGE, 100 * RANGE).boxed().toList();
+            final List<Integer> deletions = new ArrayList<>(random.ints(count, -100 * RANGE, 100 * RANGE).boxed().toList());
+            deletions.addAll(expected.stream().filter(element -> random.nextInt(3) == 0).toList());
+            if (random.nextBoolean()) {
+                set = set.with(insertions, deletions);
+                expected.removeAll(deletions);
+                expected.addAll(insertions);
+            } else {
+                final Integer element = random.nextInt(-RANGE, RANGE);
+                if (random.nextBoolean()) {
+                    set = set.plus(element);
+                    expected.add(element);
+                } else {
+                    set = set.minus(element);
+                    expected.remove(element);
+                }
+            }
+            versions.add(set);
+            snapshots.add(new ArrayList<>(expected));
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            final TreeSet<Integer> snapshot = new TreeSet<>(snapshots.get(i));
+            assertNavigable(snapshot, versions.get(i), random, 1);
+            assertNavigable(snapshot, versions.get(i).asArraySet(), random, 1);
+        }
+    }
+
+    /**
+     * Testing that {@link IntArraySet} and {@link LongArraySet} and their views navigate like {@link TreeSet}
+     */
+    @Test
+    public void testPrimitiveLikeTreeSet() {
+        final Random random = new Random(7450293845702938457L);
+        for (int size : new int[]{0, 1, 2, 10, 100, 1000}) {
+            final int[] elements = random.ints(size, -RANGE, RANGE).toArray();
+            final TreeSet<Integer> expected = new TreeSet<>(Arrays.stream(elements).boxed().toList());
+            final IntArraySet ints = new IntArraySet(elements);
+            assertNavigable(expected, ints, random, 2);
+            assertNavigable(expected, new IntArraySet(expected), random, 2);
+            Assert.assertEquals(expected, ints);
+            Assert.assertEquals(expected.hashCode(), ints.hashCode());
+            Assert.assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), ints.toIntArray());
+
+            final TreeSet<Long> expectedLongs = new TreeSet<>(Arrays.stream(elements).mapToObj(Long::valueOf).toList());
+            final LongArraySet longs = new LongArraySet(Arrays.stream(elements).asLongStream().toArray());
+            assertNavigable(expectedLongs, longs, Long::valueOf, random, 2);
+            Assert.assertEquals(expectedLongs, longs);
+            Assert.assertEquals(expectedLongs.hashCode(), longs.hashCode());
+        }
+        assertFails(NoSuchElementException.class, () -> new IntArraySet().firstInt());
+        assertFails(NoSuchElementException.class, () -> new LongArraySet().lastLong());
+        assertFails(UnsupportedOperationException.class, () -> new IntArraySet(1).pollFirst());
+    }
+}
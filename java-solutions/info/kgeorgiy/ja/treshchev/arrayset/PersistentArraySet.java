@@ -0,0 +1,386 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.util.*;
+
+/**
+ * Immutable sorted set stored in chunks of sorted arrays, updated by creating new versions.
+ *
+ * {@link #with(Collection, Collection)} applies a batch of insertions and deletions
+ * and returns a new version, which shares every untouched chunk with this one.
+ * Only chunks receiving changes are copied, and the table of chunk references is rebuilt,
+ * so a batch of {@code k} changes costs O(k log k + k * B + n / B) for chunks of {@code B} elements
+ * instead of O(n) for rebuilding an {@link ArraySet}.
+ * Versions are never modified, so readers of old versions are never blocked or affected.
+ * Overflowing chunks are split in halves, shrunk chunks are merged with their predecessor.
+ *
+ * @param <T> type of elements.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public final class PersistentArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
+
+    private static final int MAX_CHUNK = 1 << 9;
+    private static final int MIN_CHUNK = MAX_CHUNK / 4;
+
+    private final Object[][] chunks;
+    private final int[] ends;
+    private final Comparator<T> comparator;
+
+    public PersistentArraySet() {
+        this(Collections.emptyList(), null);
+    }
+
+    public PersistentArraySet(Collection<T> collection) {
+        this(collection, null);
+    }
+
+    public PersistentArraySet(Collection<T> collection, Comparator<T> comparator) {
+        this(toChunks(new ArraySet<>(collection, comparator).toArray()), comparator);
+    }
+
+    private PersistentArraySet(Object[][] chunks, Comparator<T> comparator) {
+        this.chunks = chunks;
+        this.ends = new int[this.chunks.length];
+        this.comparator = comparator;
+        int end = 0;
+        for (int i = 0; i < this.chunks.length; i++) {
+            end += this.chunks[i].length;
+            this.ends[i] = end;
+        }
+    }
+
+    private static Object[][] toChunks(Object[] sorted) {
+        final List<Object[]> chunks = new ArrayList<>();
+        split(sorted, chunks);
+        return chunks.toArray(new Object[0][]);
+    }
+
+    // chunks are half full, so that insertions don't split them at once
+    private static void split(Object[] sorted, List<Object[]> chunks) {
+        final int count = (sorted.length + MAX_CHUNK / 2 - 1) / (MAX_CHUNK / 2);
+        for (int i = 0; i < count; i++) {
+            chunks.add(Arrays.copyOfRange(sorted, (int) ((long) sorted.length * i / count),
+                    (int) ((long) sorted.length * (i + 1) / count)));
+        }
+    }
+
+    /**
+     * Returns version of this set with {@code deletions} removed and then {@code insertions} added.
+     * Element both deleted and inserted is contained in the result.
+     * Of equal elements the one already contained in this set is kept.
+     *
+     * @param insertions elements to add.
+     * @param deletions  elements to remove.
+     * @return new version of the set, or this set if there are no changes.
+     */
+    public PersistentArraySet<T> with(Collection<T> insertions, Collection<T> deletions) {
+        if (insertions.isEmpty() && deletions.isEmpty()) {
+            return this;
+        }
+        final ArraySet<T> inserted = new ArraySet<>(insertions, this.comparator);
+        final ArraySet<T> deleted = new ArraySet<>(deletions, this.comparator);
+        final List<Object[]> result = new ArrayList<>(this.chunks.length + 1);
+        int insertedFrom = 0;
+        int deletedFrom = 0;
+        final int last = Math.max(this.chunks.length - 1, 0);
+        for (int i = 0; i <= last; i++) {
+            final Object[] chunk = i < this.chunks.length ? this.chunks[i] : new Object[0];
+            // the last chunk takes all remaining elements, others take elements up to their last one
+            final int insertedTo = i == last ? inserted.size() : boundOf(inserted, insertedFrom, chunk);
+            final int deletedTo = i == last ? deleted.size() : boundOf(deleted, deletedFrom, chunk);
+            if (insertedFrom == insertedTo && deletedFrom == deletedTo) {
+                result.add(chunk);
+            } else {
+                final Object[] changed = merge(
+                        remove(chunk, deleted, deletedFrom, deletedTo),
+                        inserted, insertedFrom, insertedTo
+                );
+                append(result, changed);
+            }
+            insertedFrom = insertedTo;
+            deletedFrom = deletedTo;
+        }
+        return new PersistentArraySet<>(result.toArray(new Object[0][]), this.comparator);
+    }
+
+    /**
+     * Returns version of this set with {@code element} added.
+     *
+     * @param element element to add.
+     * @return new version of the set.
+     */
+    public PersistentArraySet<T> plus(T element) {
+        return with(List.of(element), List.of());
+    }
+
+    /**
+     * Returns version of this set with {@code element} removed.
+     *
+     * @param element element to remove.
+     * @return new version of the set.
+     */
+    public PersistentArraySet<T> minus(T element) {
+        return with(List.of(), List.of(element));
+    }
+
+    @SuppressWarnings("unchecked")
+    private int boundOf(ArraySet<T> changes, int from, Object[] chunk) {
+        int index = from;
+        final T last = (T) chunk[chunk.length - 1];
+        while (index < changes.size() && ArraySet.compare(changes.element(index), last, this.comparator) <= 0) {
+            index++;
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] remove(Object[] chunk, ArraySet<T> deleted, int from, int to) {
+        final Object[] result = new Object[chunk.length];
+        int size = 0;
+        int j = from;
+        for (Object element : chunk) {
+            while (j < to && ArraySet.compare(deleted.element(j), (T) element, this.comparator) < 0) {
+                j++;
+            }
+            if (j == to || ArraySet.compare(deleted.element(j), (T) element, this.comparator) != 0) {
+                result[size++] = element;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] merge(Object[] chunk, ArraySet<T> inserted, int from, int to) {
+        final Object[] result = new Object[chunk.length + to - from];
+        int size = 0;
+        int i = 0;
+        int j = from;
+        while (i < chunk.length && j < to) {
+            final int compared = ArraySet.compare((T) chunk[i], inserted.element(j), this.comparator);
+            if (compared <= 0) {
+                result[size++] = chunk[i++];
+                if (compared == 0) {
+                    j++;
+                }
+            } else {
+                result[size++] = inserted.element(j++);
+            }
+        }
+        while (i < chunk.length) {
+            result[size++] = chunk[i++];
+        }
+        while (j < to) {
+            result[size++] = inserted.element(j++);
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static void append(List<Object[]> chunks, Object[] chunk) {
+        if (chunk.length > MAX_CHUNK) {
+            split(chunk, chunks);
+        } else if (chunk.length < MIN_CHUNK && !chunks.isEmpty()
+                && chunks.get(chunks.size() - 1).length + chunk.length <= MAX_CHUNK) {
+            final Object[] previous = chunks.get(chunks.size() - 1);
+            final Object[] merged = Arrays.copyOf(previous, previous.length + chunk.length);
+            System.arraycopy(chunk, 0, merged, previous.length, chunk.length);
+            chunks.set(chunks.size() - 1, merged);
+        } else if (chunk.length > 0) {
+            chunks.add(chunk);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.ends.length == 0 ? 0 : this.ends[this.ends.length - 1];
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return this.comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(int index) {
+        int chunk = Arrays.binarySearch(this.ends, index);
+        chunk = chunk < 0 ? -chunk - 1 : chunk + 1;
+        return (T) this.chunks[chunk][index - (chunk == 0 ? 0 : this.ends[chunk - 1])];
+    }
+
+    // global index of the first element greater than (or equal to, if inclusive) key
+    @SuppressWarnings("unchecked")
+    private int boundIndex(T key, boolean inclusive) {
+        final int limit = inclusive ? 0 : 1;
+        int low = 0;
+        int high = this.chunks.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final Object[] chunk = this.chunks[middle];
+            if (ArraySet.compare((T) chunk[chunk.length - 1], key, this.comparator) < limit) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == this.chunks.length) {
+            return size();
+        }
+        final Object[] chunk = this.chunks[low];
+        int from = 0;
+        int to = chunk.length - 1;
+        while (from < to) {
+            final int middle = (from + to) >>> 1;
+            if (ArraySet.compare((T) chunk[middle], key, this.comparator) < limit) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return (low == 0 ? 0 : this.ends[low - 1]) + from;
+    }
+
+    private T getOrNull(int index) {
+        return 0 <= index && index < size() ? get(index) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object element) {
+        final int index = boundIndex((T) element, true);
+        return index < size() && ArraySet.compare(get(index), (T) element, this.comparator) == 0;
+    }
+
+    @Override
+    public T lower(T element) {
+        return getOrNull(boundIndex(element, true) - 1);
+    }
+
+    @Override
+    public T floor(T element) {
+        return getOrNull(boundIndex(element, false) - 1);
+    }
+
+    @Override
+    public T ceiling(T element) {
+        return getOrNull(boundIndex(element, true));
+    }
+
+    @Override
+    public T higher(T element) {
+        return getOrNull(boundIndex(element, false));
+    }
+
+    @Override
+    public T first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    @Override
+    public T last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(size() - 1);
+    }
+
+    @Override
+    public T pollFirst() {
+        throw new UnsupportedOperationException("PersistentArraySet is immutable, use with()");
+    }
+
+    @Override
+    public T pollLast() {
+        throw new UnsupportedOperationException("PersistentArraySet is immutable, use with()");
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int chunk;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return chunk < chunks.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final T element = (T) chunks[chunk][index++];
+                if (index == chunks[chunk].length) {
+                    chunk++;
+                    index = 0;
+                }
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Returns {@link ArraySet} view of this version.
+     * Navigation and range views are answered through it without copying the elements.
+     *
+     * @return sorted set view of this version.
+     */
+    public ArraySet<T> asArraySet() {
+        return ArraySet.ofSortedList(new ChunksList(), this.comparator);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return asArraySet().descendingIterator();
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new DescendingSet<>(this);
+    }
+
+    @Override
+    public NavigableSet<T> subSet(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive) {
+        return asArraySet().subSet(fromElement, fromInclusive, toElement, toInclusive);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(T toElement, boolean inclusive) {
+        return asArraySet().headSet(toElement, inclusive);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(T fromElement, boolean inclusive) {
+        return asArraySet().tailSet(fromElement, inclusive);
+    }
+
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    private class ChunksList extends AbstractList<T> implements RandomAccess {
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, size());
+            return PersistentArraySet.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return PersistentArraySet.this.size();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package info.kgeorgiy.ja.treshchev.arrayset;
+
+import java.util.*;
+
+/**
+ * Base of immutable sorted sets of primitive values stored in a range of a sorted primitive array.
+ * Navigation and views are implemented here on positions in the array,
+ * subclasses only search the array, read its elements and create views over it.
+ * Elements are ordered naturally, so {@link #comparator()} returns {@code null}.
+ *
+ * @param <T> boxed type of elements.
+ * @param <S> type of the set, returned by views.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+abstract class PrimitiveArraySet<T extends Comparable<T>, S extends PrimitiveArraySet<T, S>>
+        extends AbstractSet<T> implements NavigableSet<T> {
+
+    final int from;
+    final int to;
+
+    PrimitiveArraySet(final int from, final int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Searches {@code element} in positions from {@link #from} to {@link #to}
+     * like {@link Arrays#binarySearch(int[], int, int, int)}.
+     */
+    abstract int search(T element);
+
+    /**
+     * Returns element at position {@code index} of the array.
+     */
+    abstract T element(int index);
+
+    /**
+     * Returns set of elements at positions from {@code from} to {@code to} of the same array.
+     */
+    abstract S view(int from, int to);
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new DescendingSet<>(this);
+    }
+
+    @Override
+    public int size() {
+        return this.to - this.from;
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return null;
+    }
+
+    private int lowerIndex(final T element) {
+        final int index = search(element);
+        return index >= 0 ? index - 1 : -index - 2;
+    }
+
+    private int floorIndex(final T element) {
+        final int index = search(element);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private int ceilingIndex(final T element) {
+        final int index = search(element);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private int higherIndex(final T element) {
+        final int index = search(element);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private T get(final int index) {
+        return this.from <= index && index < this.to ? element(index) : null;
+    }
+
+    @Override
+    public T lower(final T element) {
+        return get(lowerIndex(element));
+    }
+
+    @Override
+    public T floor(final T element) {
+        return get(floorIndex(element));
+    }
+
+    @Override
+    public T ceiling(final T element) {
+        return get(ceilingIndex(element));
+    }
+
+    @Override
+    public T higher(final T element) {
+        return get(higherIndex(element));
+    }
+
+    @Override
+    public T pollFirst() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is immutable");
+    }
+
+    @Override
+    public T pollLast() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is immutable");
+    }
+
+    int firstIndex() {
+        if (this.from == this.to) {
+            throw new NoSuchElementException();
+        }
+        return this.from;
+    }
+
+    int lastIndex() {
+        if (this.from == this.to) {
+            throw new NoSuchElementException();
+        }
+        return this.to - 1;
+    }
+
+    @Override
+    public T first() {
+        return element(firstIndex());
+    }
+
+    @Override
+    public T last() {
+        return element(lastIndex());
+    }
+
+    private S subSet(final int indexFrom, final int indexTo) {
+        return view(indexFrom, Math.max(indexFrom, indexTo));
+    }
+
+    @Override
+    public S subSet(final T fromElement, final boolean fromInclusive, final T toElement, final boolean toInclusive) {
+        if (fromElement.compareTo(toElement) > 0) {
+            throw new IllegalArgumentException("fromElement " + fromElement + " is greater than toElement " + toElement);
+        }
+        return subSet(
+                fromInclusive ? ceilingIndex(fromElement) : higherIndex(fromElement),
+                (toInclusive ? floorIndex(toElement) : lowerIndex(toElement)) + 1
+        );
+    }
+
+    @Override
+    public S headSet(final T toElement, final boolean inclusive) {
+        return subSet(this.from, (inclusive ? floorIndex(toElement) : lowerIndex(toElement)) + 1);
+    }
+
+    @Override
+    public S tailSet(final T fromElement, final boolean inclusive) {
+        return subSet(inclusive ? ceilingIndex(fromElement) : higherIndex(fromElement), this.to);
+    }
+
+    @Override
+    public S subSet(final T fromElement, final T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public S headSet(final T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public S tailSet(final T fromElement) {
+        return tailSet(fromElement, true);
+    }
+}
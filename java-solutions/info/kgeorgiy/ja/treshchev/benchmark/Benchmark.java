@@ -0,0 +1,59 @@
+package info.kgeorgiy.ja.treshchev.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Timing loop shared by micro benchmarks of the solutions.
+ *
+ * An iteration is run {@value #WARMUP_ITERATIONS} times to warm up JIT and caches,
+ * then average time of {@value #MEASURED_ITERATIONS} more runs is taken.
+ * Results of iterations are accumulated into a field, so that their work couldn't be eliminated.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public final class Benchmark {
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    private static long sink;
+
+    /**
+     * Measured piece of work.
+     *
+     * @param <E> type of exception thrown by the work.
+     */
+    @FunctionalInterface
+    public interface Iteration<E extends Exception> {
+        /**
+         * Does the work once.
+         *
+         * @return any value depending on results of the work.
+         * @throws E if the work fails.
+         */
+        long run() throws E;
+    }
+
+    private Benchmark() {
+    }
+
+    /**
+     * Returns average time of {@code iteration} after warmup.
+     *
+     * @param iteration work to measure.
+     * @param <E>       type of exception thrown by the work.
+     * @return average time of one iteration in nanoseconds.
+     * @throws E if the work fails.
+     */
+    public static <E extends Exception> double measure(final Iteration<E> iteration) throws E {
+        final long[] times = new long[MEASURED_ITERATIONS];
+        for (int i = -WARMUP_ITERATIONS; i < MEASURED_ITERATIONS; i++) {
+            final long start = System.nanoTime();
+            sink += iteration.run();
+            if (i >= 0) {
+                times[i] = System.nanoTime() - start;
+            }
+        }
+        return Arrays.stream(times).average().orElse(0);
+    }
+}
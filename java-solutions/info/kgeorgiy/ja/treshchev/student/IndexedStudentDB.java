@@ -0,0 +1,159 @@
+package info.kgeorgiy.ja.treshchev.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link StudentDB} with indexes of a roster loaded once.
+ *
+ * Roster is sorted by id and by name on construction and grouped by first name, last name and group,
+ * each group keeping the name order.
+ * Queries over the roster itself, passed as {@link #getRoster()} or through overloads without collection,
+ * are answered from the indexes in O(size of result) time.
+ * Queries over any other collection are answered by {@link StudentDB}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public class IndexedStudentDB extends StudentDB {
+
+    private final List<Student> roster;
+    private final List<Student> byId;
+    private final List<Student> byName;
+    private final Map<String, List<Student>> byFirstName;
+    private final Map<String, List<Student>> byLastName;
+    private final Map<GroupName, List<Student>> byGroup;
+
+    public IndexedStudentDB(final Collection<Student> roster) {
+        this.roster = List.copyOf(roster);
+        this.byId = super.sortStudentsById(this.roster);
+        this.byName = super.sortStudentsByName(this.roster);
+        this.byFirstName = index(Student::getFirstName);
+        this.byLastName = index(Student::getLastName);
+        this.byGroup = index(Student::getGroup);
+    }
+
+    private <T> Map<T, List<Student>> index(final Function<Student, T> key) {
+        return this.byName.stream().collect(Collectors.groupingBy(
+                key,
+                HashMap::new,
+                Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)
+        ));
+    }
+
+    /**
+     * Returns the indexed roster. Queries over it are answered from indexes.
+     *
+     * @return immutable list of students of the roster.
+     */
+    public List<Student> getRoster() {
+        return this.roster;
+    }
+
+    private boolean isRoster(final Collection<Student> collection) {
+        return collection == this.roster;
+    }
+
+    @Override
+    public Set<String> getDistinctFirstNames(final List<Student> list) {
+        return isRoster(list) ? new TreeSet<>(this.byFirstName.keySet()) : super.getDistinctFirstNames(list);
+    }
+
+    @Override
+    public String getMaxStudentFirstName(final List<Student> list) {
+        if (isRoster(list)) {
+            if (this.byId.isEmpty()) {
+                return "";
+            }
+            // of students with equal maximal ids the first one is taken
+            int index = this.byId.size() - 1;
+            while (index > 0 && this.byId.get(index - 1).compareTo(this.byId.get(index)) == 0) {
+                index--;
+            }
+            return this.byId.get(index).getFirstName();
+        }
+        return super.getMaxStudentFirstName(list);
+    }
+
+    @Override
+    public List<Student> sortStudentsById(final Collection<Student> collection) {
+        return isRoster(collection) ? this.byId : super.sortStudentsById(collection);
+    }
+
+    @Override
+    public List<Student> sortStudentsByName(final Collection<Student> collection) {
+        return isRoster(collection) ? this.byName : super.sortStudentsByName(collection);
+    }
+
+    @Override
+    public List<Student> findStudentsByFirstName(final Collection<Student> collection, final String s) {
+        return isRoster(collection) ? findStudentsByFirstName(s) : super.findStudentsByFirstName(collection, s);
+    }
+
+    @Override
+    public List<Student> findStudentsByLastName(final Collection<Student> collection, final String s) {
+        return isRoster(collection) ? findStudentsByLastName(s) : super.findStudentsByLastName(collection, s);
+    }
+
+    @Override
+    public List<Student> findStudentsByGroup(final Collection<Student> collection, final GroupName groupName) {
+        return isRoster(collection) ? findStudentsByGroup(groupName) : super.findStudentsByGroup(collection, groupName);
+    }
+
+    @Override
+    public Map<String, String> findStudentNamesByGroup(final Collection<Student> collection, final GroupName groupName) {
+        return isRoster(collection)
+                ? findStudentNamesByGroup(groupName)
+                : super.findStudentNamesByGroup(collection, groupName);
+    }
+
+    /**
+     * Returns students of the roster with first name {@code s} ordered by name.
+     *
+     * @param s first name.
+     * @return immutable list of found students.
+     */
+    public List<Student> findStudentsByFirstName(final String s) {
+        return this.byFirstName.getOrDefault(s, List.of());
+    }
+
+    /**
+     * Returns students of the roster with last name {@code s} ordered by name.
+     *
+     * @param s last name.
+     * @return immutable list of found students.
+     */
+    public List<Student> findStudentsByLastName(final String s) {
+        return this.byLastName.getOrDefault(s, List.of());
+    }
+
+    /**
+     * Returns students of the roster from group {@code groupName} ordered by name.
+     *
+     * @param groupName group.
+     * @return immutable list of found students.
+     */
+    public List<Student> findStudentsByGroup(final GroupName groupName) {
+        return this.byGroup.getOrDefault(groupName, List.of());
+    }
+
+    /**
+     * Returns last names of students of the roster from group {@code groupName}
+     * mapped to the least of their first names.
+     *
+     * @param groupName group.
+     * @return map from last names to first names.
+     */
+    public Map<String, String> findStudentNamesByGroup(final GroupName groupName) {
+        return findStudentsByGroup(groupName).stream()
+                .collect(Collectors.toMap(
+                        Student::getLastName,
+                        Student::getFirstName,
+                        BinaryOperator.minBy(Comparable::compareTo)
+                ));
+    }
+}
@@ -0,0 +1,115 @@
+package info.kgeorgiy.ja.treshchev.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for {@link IndexedStudentDB} and {@link StudentTable}
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub</a>)
+ */
+public class MyStudentDBTests {
+
+    // names equal ignoring case check tie-breaking of name orders
+    private static final String[] NAMES = {"Ivan", "ivan", "Petr", "Anna", "anna", "Olga", "Boris", "Zoe"};
+
+    private final StudentDB reference = new StudentDB();
+
+    private static List<Student> randomStudents(final Random random, final int count) {
+        final GroupName[] groups = GroupName.values();
+        final List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // repeated ids check tie-breaking of id orders
+            students.add(new Student(random.nextInt(count + 1),
+                    NAMES[random.nextInt(NAMES.length)],
+                    NAMES[random.nextInt(NAMES.length)],
+                    groups[random.nextInt(groups.length)]));
+        }
+        return students;
+    }
+
+    private static List<String> rows(final List<Student> students) {
+        return students.stream()
+                .map(student -> student.getId() + " " + student.getFirstName() + " "
+                        + student.getLastName() + " " + student.getGroup())
+                .toList();
+    }
+
+    private void assertSameAnswers(final StudentDB db, final List<Student> roster, final List<Student> students) {
+        Assert.assertEquals(this.reference.getFirstNames(students), db.getFirstNames(roster));
+        Assert.assertEquals(this.reference.getLastNames(students), db.getLastNames(roster));
+        Assert.assertEquals(this.reference.getGroups(students), db.getGroups(roster));
+        Assert.assertEquals(this.reference.getFullNames(students), db.getFullNames(roster));
+        Assert.assertEquals(this.reference.getDistinctFirstNames(students), db.getDistinctFirstNames(roster));
+        Assert.assertEquals(this.reference.getMaxStudentFirstName(students), db.getMaxStudentFirstName(roster));
+        Assert.assertEquals(rows(this.reference.sortStudentsById(students)), rows(db.sortStudentsById(roster)));
+        Assert.assertEquals(rows(this.reference.sortStudentsByName(students)), rows(db.sortStudentsByName(roster)));
+        for (String name : NAMES) {
+            Assert.assertEquals(rows(this.reference.findStudentsByFirstName(students, name)),
+                    rows(db.findStudentsByFirstName(roster, name)));
+            Assert.assertEquals(rows(this.reference.findStudentsByLastName(students, name)),
+                    rows(db.findStudentsByLastName(roster, name)));
+        }
+        Assert.assertEquals(List.of(), db.findStudentsByFirstName(roster, "Nobody"));
+        for (GroupName group : GroupName.values()) {
+            Assert.assertEquals(rows(this.reference.findStudentsByGroup(students, group)),
+                    rows(db.findStudentsByGroup(roster, group)));
+            Assert.assertEquals(this.reference.findStudentNamesByGroup(students, group),
+                    db.findStudentNamesByGroup(roster, group));
+        }
+    }
+
+    /**
+     * Testing that {@link IndexedStudentDB} answers like {@link StudentDB}
+     * over its roster, through overloads without collection and over other collections
+     */
+    @Test
+    public void testIndexedStudentDB() {
+        final Random random = new Random(3457029384570293845L);
+        for (int count : new int[]{0, 1, 2, 10, 100, 1000}) {
+            final List<Student> students = randomStudents(random, count);
+            final IndexedStudentDB db = new IndexedStudentDB(students);
+            assertSameAnswers(db, db.getRoster(), students);
+
+            final List<Student> other = randomStudents(random, count);
+            assertSameAnswers(db, other, other);
+
+            for (String name : NAMES) {
+                Assert.assertEquals(rows(this.reference.findStudentsByFirstName(students, name)),
+                        rows(db.findStudentsByFirstName(name)));
+                Assert.assertEquals(rows(this.reference.findStudentsByLastName(students, name)),
+                        rows(db.findStudentsByLastName(name)));
+            }
+            for (GroupName group : GroupName.values()) {
+                Assert.assertEquals(rows(this.reference.findStudentsByGroup(students, group)),
+                        rows(db.findStudentsByGroup(group)));
+                Assert.assertEquals(this.reference.findStudentNamesByGroup(students, group),
+                        db.findStudentNamesByGroup(group));
+            }
+        }
+    }
+
+    /**
+     * Testing that {@link StudentTable} answers like {@link StudentDB}
+     * over its roster and over other collections, and restores students of the roster
+     */
+    @Test
+    public void testStudentTable() {
+        final Random random = new Random(2837450928374509237L);
+        for (int count : new int[]{0, 1, 2, 10, 100, 1000}) {
+            final List<Student> students = randomStudents(random, count);
+            final StudentTable table = new StudentTable(students);
+            Assert.assertEquals(rows(students), rows(table.getRoster()));
+            assertSameAnswers(table, table.getRoster(), students);
+
+            final List<Student> other = randomStudents(random, count);
+            assertSameAnswers(table, other, other);
+        }
+    }
+}
@@ -9,19 +9,48 @@ import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 
 public class StudentDB implements StudentQuery {
 
-    private static final Comparator<Student> NAME_COMPARATOR = Comparator
+    static final Comparator<Student> NAME_COMPARATOR = Comparator
             .comparing(Student::getLastName, String.CASE_INSENSITIVE_ORDER)
             .thenComparing(Student::getFirstName, String.CASE_INSENSITIVE_ORDER)
             .reversed()
             .thenComparing(Student::getId);
 
+    private final int parallelThreshold;
+
+    /**
+     * Creates database running every query sequentially.
+     */
+    public StudentDB() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates database running queries over at least {@code parallelThreshold} students
+     * as parallel streams in the common {@link java.util.concurrent.ForkJoinPool}.
+     * Results are identical to sequential ones: streams keep encounter order,
+     * ties in sorting are broken by position in the collection and merge functions of collectors don't depend on the order of merging.
+     *
+     * @param parallelThreshold minimal size of collection queried in parallel.
+     */
+    public StudentDB(int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Expected positive threshold, found " + parallelThreshold);
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    private <T> Stream<T> stream(Collection<T> collection) {
+        return collection.size() >= this.parallelThreshold ? collection.parallelStream() : collection.stream();
+    }
+
     private <T> List<T> getItems(List<Student> list, Function<Student, T> function) {
-        return list.stream().map(function).toList();
+        return stream(list).map(function).toList();
     }
 
     @Override
@@ -46,22 +75,39 @@ public class StudentDB implements StudentQuery {
 
     @Override
     public Set<String> getDistinctFirstNames(List<Student> list) {
-        return list.stream()
+        return stream(list)
                 .map(Student::getFirstName)
                 .collect(Collectors.toCollection(TreeSet::new));
     }
 
     @Override
     public String getMaxStudentFirstName(List<Student> list) {
-        return list.stream()
+        return stream(list)
                 .max(Comparator.naturalOrder())
                 .map(Student::getFirstName)
                 .orElse("");
     }
 
     private List<Student> sortStudents(Collection<Student> collection, Comparator<Student> comparator) {
-        return collection.stream()
-                .sorted(comparator)
+        return filterAndSort(collection, student -> true, comparator);
+    }
+
+    // parallel sort is not stable for every input, so ties are broken by position in the collection explicitly
+    private List<Student> filterAndSort(Collection<Student> collection,
+                                        Predicate<? super Student> filter,
+                                        Comparator<? super Student> order) {
+        if (collection.size() < this.parallelThreshold) {
+            return collection.stream()
+                    .filter(filter)
+                    .sorted(order)
+                    .toList();
+        }
+        final Student[] students = collection.toArray(Student[]::new);
+        return IntStream.range(0, students.length).parallel()
+                .filter(i -> filter.test(students[i]))
+                .mapToObj(i -> new Candidate(students[i], i))
+                .sorted(Comparator.comparing(Candidate::student, order).thenComparingLong(Candidate::position))
+                .map(Candidate::student)
                 .toList();
     }
 
@@ -81,8 +127,68 @@ public class StudentDB implements StudentQuery {
     }
 
     private <T> Stream<Student> findStudentBy(Collection<Student> collection, Function<Student, T> function, T object) {
-        return sortStudentsByName(collection).stream()
-                .filter(buildFindPredicate(function, object));
+        return stream(selectStudents(collection, buildFindPredicate(function, object), NAME_COMPARATOR, Integer.MAX_VALUE));
+    }
+
+    private record Candidate(Student student, long position) {
+    }
+
+    /**
+     * Returns first {@code limit} students of {@code collection} matching {@code filter} in {@code order}.
+     * Students are filtered before sorting, so only matching ones are sorted.
+     * If only a part of the collection is requested, the first students are kept in a bounded heap
+     * in O(n log limit) time and O(limit) memory instead of sorting all matching students.
+     * Result is the same as of filtering, stable sorting and limiting the collection.
+     *
+     * @param collection students to select from.
+     * @param filter     condition on selected students.
+     * @param order      order of selected students.
+     * @param limit      maximal count of selected students.
+     * @return selected students.
+     */
+    public List<Student> selectStudents(Collection<Student> collection,
+                                        Predicate<? super Student> filter,
+                                        Comparator<? super Student> order,
+                                        int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Expected non-negative limit, found " + limit);
+        }
+        if (limit >= collection.size()) {
+            return filterAndSort(collection, filter, order);
+        }
+        // position in the collection keeps the result stable, the head of the heap is the worst kept student
+        final Comparator<Candidate> candidateOrder = Comparator
+                .comparing(Candidate::student, order)
+                .thenComparingLong(Candidate::position);
+        final PriorityQueue<Candidate> heap = new PriorityQueue<>(limit + 1, candidateOrder.reversed());
+        long position = 0;
+        for (Student student : collection) {
+            if (filter.test(student)) {
+                final Candidate candidate = new Candidate(student, position);
+                if (heap.size() < limit) {
+                    heap.add(candidate);
+                } else if (limit > 0 && candidateOrder.compare(candidate, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+            position++;
+        }
+        return heap.stream()
+                .sorted(candidateOrder)
+                .map(Candidate::student)
+                .toList();
+    }
+
+    /**
+     * Returns first {@code limit} students of {@code collection} sorted by name.
+     *
+     * @param collection students to sort.
+     * @param limit      maximal count of returned students.
+     * @return first students by name.
+     */
+    public List<Student> findFirstStudentsByName(Collection<Student> collection, int limit) {
+        return selectStudents(collection, student -> true, NAME_COMPARATOR, limit);
     }
 
     @Override
@@ -0,0 +1,85 @@
+package info.kgeorgiy.ja.treshchev.student;
+
+import info.kgeorgiy.ja.treshchev.benchmark.Benchmark;
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Micro benchmark of {@link StudentDB} queries on a large synthetic roster.
+ *
+ * Compares sorting the whole roster before filtering with filtering before sorting
+ * for queries of different selectivity, full sort with bounded heap for top-k queries,
+ * and scans of student objects with scans of columns of {@link StudentTable}.
+ *
+ * Usage: {@code StudentDBBenchmark [count of students]}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public class StudentDBBenchmark {
+
+    private static final int FIRST_NAMES = 1000;
+    private static final int LAST_NAMES = 10000;
+    private static final int TOP = 10;
+
+    /**
+     * Runs all benchmarks and prints results to {@link System#out}.
+     *
+     * @param args optional count of students.
+     */
+    public static void main(final String[] args) {
+        final int count;
+        try {
+            count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        } catch (NumberFormatException e) {
+            System.err.println("Usage: StudentDBBenchmark [count of students]");
+            return;
+        }
+
+        final Random random = new Random(count);
+        final GroupName[] groups = GroupName.values();
+        final List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(new Student(
+                    random.nextInt(count),
+                    "First" + random.nextInt(FIRST_NAMES),
+                    "Last" + random.nextInt(LAST_NAMES),
+                    groups[random.nextInt(groups.length)]
+            ));
+        }
+
+        final StudentDB db = new StudentDB();
+        final GroupName group = groups[0];
+        final String firstName = "First0";
+        measure("group, sort then filter", () -> db.sortStudentsByName(students).stream()
+                .filter(student -> student.getGroup() == group)
+                .toList());
+        measure("group, filter then sort", () -> db.findStudentsByGroup(students, group));
+        measure("first name, sort then filter", () -> db.sortStudentsByName(students).stream()
+                .filter(student -> student.getFirstName().equals(firstName))
+                .toList());
+        measure("first name, filter then sort", () -> db.findStudentsByFirstName(students, firstName));
+        measure("top " + TOP + " by name, full sort", () -> db.sortStudentsByName(students).subList(0, TOP));
+        measure("top " + TOP + " by name, bounded heap", () -> db.findFirstStudentsByName(students, TOP));
+
+        final StudentTable table = new StudentTable(students);
+        final List<Student> roster = table.getRoster();
+        measure("distinct first names, objects", () -> db.getDistinctFirstNames(students));
+        measure("distinct first names, columns", () -> table.getDistinctFirstNames(roster));
+        measure("max first name, objects", () -> db.getMaxStudentFirstName(students));
+        measure("max first name, columns", () -> table.getMaxStudentFirstName(roster));
+        measure("group, objects", () -> db.findStudentsByGroup(students, group));
+        measure("group, columns", () -> table.findStudentsByGroup(roster, group));
+        measure("sort by name, objects", () -> db.sortStudentsByName(students));
+        measure("sort by name, columns", () -> table.sortStudentsByName(roster));
+    }
+
+    private static void measure(final String name, final Supplier<?> query) {
+        final double nanos = Benchmark.measure(() -> System.identityHashCode(query.get()));
+        System.out.printf("%-36s %10.1f ms/query%n", name, nanos / 1e6);
+    }
+}
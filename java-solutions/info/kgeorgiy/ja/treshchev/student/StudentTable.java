@@ -0,0 +1,283 @@
+package info.kgeorgiy.ja.treshchev.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * {@link StudentDB} over a roster stored column by column.
+ *
+ * First names, last names and groups are interned into dictionaries and stored as {@code int[]} columns of codes,
+ * ids are stored as an {@code int[]} column, so a student takes 16 bytes of columns instead of a separate object.
+ * Students are not kept: {@link #getRoster()} and results of queries create students from the columns,
+ * equal to the original ones.
+ * Queries over the roster itself, passed as {@link #getRoster()}, scan the columns in primitive loops,
+ * sorting is done on {@code long} keys of ranks of dictionary values and positions.
+ * Queries over any other collection are answered by {@link StudentDB}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public class StudentTable extends StudentDB {
+
+    private final int[] ids;
+    private final Column<String> firstNames;
+    private final Column<String> lastNames;
+    private final Column<GroupName> groups;
+    private final int[] firstNameRanks;
+    private final int[] lastNameRanks;
+    private final int[] firstNameOrder;
+    private final List<Student> roster = new RosterList();
+
+    public StudentTable(final Collection<Student> roster) {
+        final Student[] students = roster.toArray(new Student[0]);
+        this.ids = new int[students.length];
+        for (int i = 0; i < students.length; i++) {
+            this.ids[i] = students[i].getId();
+        }
+        this.firstNames = new Column<>(students, Student::getFirstName);
+        this.lastNames = new Column<>(students, Student::getLastName);
+        this.groups = new Column<>(students, Student::getGroup);
+        this.firstNameRanks = this.firstNames.ranks(String.CASE_INSENSITIVE_ORDER);
+        this.lastNameRanks = this.lastNames.ranks(String.CASE_INSENSITIVE_ORDER);
+        this.firstNameOrder = this.firstNames.ranks(Comparator.naturalOrder());
+    }
+
+    /**
+     * Returns the roster. Queries over it scan the columns.
+     *
+     * @return immutable list of students of the roster.
+     */
+    public List<Student> getRoster() {
+        return this.roster;
+    }
+
+    private boolean isRoster(final Collection<Student> collection) {
+        return collection == this.roster;
+    }
+
+    private Student row(final int row) {
+        return new Student(this.ids[row], this.firstNames.get(row), this.lastNames.get(row), this.groups.get(row));
+    }
+
+    private <T> List<T> getItems(final IntFunction<T> item) {
+        final List<T> items = new ArrayList<>(this.ids.length);
+        for (int row = 0; row < this.ids.length; row++) {
+            items.add(item.apply(row));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    @Override
+    public List<String> getFirstNames(final List<Student> list) {
+        return isRoster(list) ? getItems(this.firstNames::get) : super.getFirstNames(list);
+    }
+
+    @Override
+    public List<String> getLastNames(final List<Student> list) {
+        return isRoster(list) ? getItems(this.lastNames::get) : super.getLastNames(list);
+    }
+
+    @Override
+    public List<GroupName> getGroups(final List<Student> list) {
+        return isRoster(list) ? getItems(this.groups::get) : super.getGroups(list);
+    }
+
+    @Override
+    public List<String> getFullNames(final List<Student> list) {
+        return isRoster(list)
+                ? getItems(row -> this.firstNames.get(row) + " " + this.lastNames.get(row))
+                : super.getFullNames(list);
+    }
+
+    @Override
+    public Set<String> getDistinctFirstNames(final List<Student> list) {
+        // dictionary holds exactly the first names present in the roster
+        return isRoster(list) ? new TreeSet<>(this.firstNames.values) : super.getDistinctFirstNames(list);
+    }
+
+    @Override
+    public String getMaxStudentFirstName(final List<Student> list) {
+        if (isRoster(list)) {
+            if (this.ids.length == 0) {
+                return "";
+            }
+            // students are compared by ids, of equal maximal ids the first one is taken
+            int max = 0;
+            for (int row = 1; row < this.ids.length; row++) {
+                if (this.ids[row] > this.ids[max]) {
+                    max = row;
+                }
+            }
+            return this.firstNames.get(max);
+        }
+        return super.getMaxStudentFirstName(list);
+    }
+
+    @Override
+    public List<Student> sortStudentsById(final Collection<Student> collection) {
+        return isRoster(collection) ? toStudents(sortById(allRows())) : super.sortStudentsById(collection);
+    }
+
+    @Override
+    public List<Student> sortStudentsByName(final Collection<Student> collection) {
+        return isRoster(collection) ? toStudents(sortByName(allRows())) : super.sortStudentsByName(collection);
+    }
+
+    @Override
+    public List<Student> findStudentsByFirstName(final Collection<Student> collection, final String s) {
+        return isRoster(collection)
+                ? toStudents(sortByName(select(this.firstNames, s)))
+                : super.findStudentsByFirstName(collection, s);
+    }
+
+    @Override
+    public List<Student> findStudentsByLastName(final Collection<Student> collection, final String s) {
+        return isRoster(collection)
+                ? toStudents(sortByName(select(this.lastNames, s)))
+                : super.findStudentsByLastName(collection, s);
+    }
+
+    @Override
+    public List<Student> findStudentsByGroup(final Collection<Student> collection, final GroupName groupName) {
+        return isRoster(collection)
+                ? toStudents(sortByName(select(this.groups, groupName)))
+                : super.findStudentsByGroup(collection, groupName);
+    }
+
+    @Override
+    public Map<String, String> findStudentNamesByGroup(final Collection<Student> collection, final GroupName groupName) {
+        if (!isRoster(collection)) {
+            return super.findStudentNamesByGroup(collection, groupName);
+        }
+        final int group = this.groups.codeOf(groupName);
+        // the least first name for every last name code, -1 if there is no such student in the group
+        final int[] least = new int[this.lastNames.values.size()];
+        Arrays.fill(least, -1);
+        for (int row = 0; row < this.ids.length; row++) {
+            if (this.groups.codes[row] == group) {
+                final int lastName = this.lastNames.codes[row];
+                final int firstName = this.firstNames.codes[row];
+                if (least[lastName] < 0 || this.firstNameOrder[firstName] < this.firstNameOrder[least[lastName]]) {
+                    least[lastName] = firstName;
+                }
+            }
+        }
+        final Map<String, String> result = new HashMap<>();
+        for (int lastName = 0; lastName < least.length; lastName++) {
+            if (least[lastName] >= 0) {
+                result.put(this.lastNames.values.get(lastName), this.firstNames.values.get(least[lastName]));
+            }
+        }
+        return result;
+    }
+
+    private int[] allRows() {
+        return IntStream.range(0, this.ids.length).toArray();
+    }
+
+    private int[] select(final Column<?> column, final Object value) {
+        final int code = column.codeOf(value);
+        if (code < 0) {
+            return new int[0];
+        }
+        final int[] rows = new int[this.ids.length];
+        int count = 0;
+        for (int row = 0; row < this.ids.length; row++) {
+            if (column.codes[row] == code) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    private int[] sortById(final int[] rows) {
+        return sortBy(rows, row -> this.ids[row]);
+    }
+
+    // least significant keys first: stable sorts keep the order of previous keys among equal ones
+    private int[] sortByName(final int[] rows) {
+        sortById(rows);
+        sortBy(rows, row -> -this.firstNameRanks[this.firstNames.codes[row]]);
+        return sortBy(rows, row -> -this.lastNameRanks[this.lastNames.codes[row]]);
+    }
+
+    // stable sort of rows by key, ties are kept in the current order by the low half of the sorted longs
+    private static int[] sortBy(final int[] rows, final IntUnaryOperator key) {
+        final long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            keys[i] = (long) key.applyAsInt(rows[i]) << 32 | i;
+        }
+        Arrays.sort(keys);
+        final int[] sorted = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            sorted[i] = rows[(int) keys[i]];
+        }
+        System.arraycopy(sorted, 0, rows, 0, rows.length);
+        return rows;
+    }
+
+    private List<Student> toStudents(final int[] rows) {
+        final List<Student> students = new ArrayList<>(rows.length);
+        for (final int row : rows) {
+            students.add(row(row));
+        }
+        return Collections.unmodifiableList(students);
+    }
+
+    private static final class Column<T> {
+        private final int[] codes;
+        private final List<T> values = new ArrayList<>();
+        private final Map<T, Integer> dictionary = new HashMap<>();
+
+        Column(final Student[] students, final Function<Student, T> field) {
+            this.codes = new int[students.length];
+            for (int row = 0; row < students.length; row++) {
+                this.codes[row] = this.dictionary.computeIfAbsent(field.apply(students[row]), value -> {
+                    this.values.add(value);
+                    return this.values.size() - 1;
+                });
+            }
+        }
+
+        T get(final int row) {
+            return this.values.get(this.codes[row]);
+        }
+
+        int codeOf(final Object value) {
+            return this.dictionary.getOrDefault(value, -1);
+        }
+
+        // ranks of values by code, values equal by comparator have equal ranks
+        int[] ranks(final Comparator<? super T> comparator) {
+            final int[] order = IntStream.range(0, this.values.size())
+                    .boxed()
+                    .sorted(Comparator.comparing(this.values::get, comparator))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            final int[] ranks = new int[order.length];
+            for (int i = 1; i < order.length; i++) {
+                final boolean greater = comparator.compare(this.values.get(order[i - 1]), this.values.get(order[i])) < 0;
+                ranks[order[i]] = ranks[order[i - 1]] + (greater ? 1 : 0);
+            }
+            return ranks;
+        }
+    }
+
+    private class RosterList extends AbstractList<Student> implements RandomAccess {
+        @Override
+        public Student get(final int index) {
+            Objects.checkIndex(index, size());
+            return row(index);
+        }
+
+        @Override
+        public int size() {
+            return StudentTable.this.ids.length;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Base class of hash functions consuming input by fixed-size little-endian blocks.
+ *
+ * Full blocks are processed in place, only a partial block between
+ * two {@link #update(ByteBuffer)} calls is copied.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+abstract class BlockHasher implements Hasher {
+
+    private final int blockLength;
+    private final ByteBuffer tail;
+    private long total;
+
+    /**
+     * Creates hasher with specified block length.
+     *
+     * @param blockLength length of block in bytes.
+     */
+    protected BlockHasher(final int blockLength) {
+        this.blockLength = blockLength;
+        this.tail = ByteBuffer.allocate(blockLength).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public final void update(final ByteBuffer input) {
+        final ByteOrder order = input.order();
+        input.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            this.total += input.remaining();
+            if (this.tail.position() > 0) {
+                final int length = Math.min(this.tail.remaining(), input.remaining());
+                this.tail.put(this.tail.position(), input, input.position(), length);
+                this.tail.position(this.tail.position() + length);
+                input.position(input.position() + length);
+                if (this.tail.hasRemaining()) {
+                    return;
+                }
+                processBlock(this.tail, 0);
+                this.tail.clear();
+            }
+            int position = input.position();
+            final int end = input.limit() - this.blockLength;
+            for (; position <= end; position += this.blockLength) {
+                processBlock(input, position);
+            }
+            this.tail.put(0, input, position, input.limit() - position);
+            this.tail.position(input.limit() - position);
+            input.position(input.limit());
+        } finally {
+            input.order(order);
+        }
+    }
+
+    @Override
+    public final byte[] digest() {
+        this.tail.flip();
+        final byte[] result = finish(this.tail, this.total);
+        reset();
+        return result;
+    }
+
+    @Override
+    public final void reset() {
+        this.tail.clear();
+        this.total = 0;
+        resetState();
+    }
+
+    /**
+     * Processes full block of input.
+     *
+     * @param input  little-endian buffer containing the block.
+     * @param offset absolute index of the first byte of the block.
+     */
+    protected abstract void processBlock(ByteBuffer input, int offset);
+
+    /**
+     * Processes last partial block and returns hash.
+     *
+     * @param tail  little-endian buffer containing less than one block.
+     * @param total count of all bytes passed to the hash.
+     * @return computed hash.
+     */
+    protected abstract byte[] finish(ByteBuffer tail, long total);
+
+    /**
+     * Resets state of the hash function to the initial one.
+     */
+    protected abstract void resetState();
+}
@@ -0,0 +1,85 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * Progress of {@link Walk} run saved to continue it after interruption.
+ *
+ * Checkpoint is taken only when all results for the first {@code lines} input lines
+ * are written, flushed and synced to the output file of {@code outputBytes} bytes.
+ *
+ * @param lines       count of completely processed input lines.
+ * @param outputBytes length of output file containing their results.
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+record Checkpoint(long lines, long outputBytes) {
+
+    private static final String LINES_KEY = "lines";
+    private static final String OUTPUT_BYTES_KEY = "outputBytes";
+
+    /**
+     * Returns file where checkpoints of run writing into {@code output} are stored.
+     *
+     * @param output output file of the run.
+     * @return checkpoint file next to the output file.
+     */
+    static Path fileFor(final Path output) {
+        return output.resolveSibling(output.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * Loads checkpoint from {@code file}.
+     *
+     * @param file where checkpoint is stored.
+     * @return stored checkpoint, or {@code null} if there is no checkpoint.
+     * @throws IOException if checkpoint exists but couldn't be read.
+     */
+    static Checkpoint load(final Path file) throws IOException {
+        if (Files.notExists(file)) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        try {
+            return new Checkpoint(
+                    Long.parseLong(properties.getProperty(LINES_KEY)),
+                    Long.parseLong(properties.getProperty(OUTPUT_BYTES_KEY))
+            );
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Atomically replaces checkpoint in {@code file} with this one.
+     * New checkpoint is synced before the replacement, so after a crash the file holds one of them completely.
+     *
+     * @param file where checkpoint is stored.
+     * @throws IOException if checkpoint couldn't be written.
+     */
+    void save(final Path file) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(LINES_KEY, Long.toString(this.lines));
+        properties.setProperty(OUTPUT_BYTES_KEY, Long.toString(this.outputBytes));
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Walk checkpoint");
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,70 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.util.Arrays;
+
+/**
+ * Compact list of content-defined chunks of a file.
+ *
+ * Chunk hashes are stored one after another in a single {@code byte[]}
+ * and chunk ends in a single {@code long[]}, so a chunk costs only its hash and 8 bytes.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class ChunkList {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int hashLength;
+    private byte[] hashes;
+    private long[] ends;
+    private int size;
+
+    /**
+     * Creates empty list of chunks with hashes of specified length.
+     *
+     * @param hashLength length of chunk hash in bytes.
+     */
+    ChunkList(final int hashLength) {
+        this.hashLength = hashLength;
+        this.hashes = new byte[INITIAL_CAPACITY * hashLength];
+        this.ends = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Appends chunk ending at {@code end}.
+     *
+     * @param end  offset of the first byte after the chunk.
+     * @param hash hash of the chunk.
+     */
+    void add(final long end, final byte[] hash) {
+        if (this.size == this.ends.length) {
+            this.ends = Arrays.copyOf(this.ends, 2 * this.size);
+            this.hashes = Arrays.copyOf(this.hashes, 2 * this.size * this.hashLength);
+        }
+        this.ends[this.size] = end;
+        System.arraycopy(hash, 0, this.hashes, this.size * this.hashLength, this.hashLength);
+        this.size++;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    long getOffset(final int index) {
+        return index == 0 ? 0 : this.ends[index - 1];
+    }
+
+    long getLength(final int index) {
+        return this.ends[index] - getOffset(index);
+    }
+
+    /**
+     * Copies hash of chunk {@code index} to {@code hash}.
+     *
+     * @param index index of the chunk.
+     * @param hash  where to copy the hash.
+     */
+    void getHash(final int index, final byte[] hash) {
+        System.arraycopy(this.hashes, index * this.hashLength, hash, 0, this.hashLength);
+    }
+}
@@ -0,0 +1,107 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Splits a file into content-defined chunks and hashes every chunk.
+ *
+ * Boundaries are found with the gear rolling hash: a chunk ends after a byte
+ * for which the low bits of the rolling hash are zero, but not earlier than {@value #MIN_CHUNK_LENGTH}
+ * bytes and not later than {@value #MAX_CHUNK_LENGTH} bytes after its start.
+ * Since boundaries depend only on nearby content, an insertion or change in a file
+ * moves only the chunks around it, and the rest keep their hashes.
+ * Instance is not thread-safe.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class ContentChunker {
+
+    private static final int MIN_CHUNK_LENGTH = 1 << 11;
+    private static final int MAX_CHUNK_LENGTH = 1 << 16;
+    // 13 bits give chunks of 8 KiB on average
+    private static final long BOUNDARY_MASK = (1L << 13) - 1;
+    private static final long GEAR_SEED = 0x5741_4C4B_4745_4152L;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // Random is specified to produce the same sequence for the same seed, so boundaries are stable
+        final Random random = new Random(GEAR_SEED);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final Hasher hasher;
+    private final int hashLength;
+    private ChunkList chunks;
+    private long chunkStart;
+    private long chunkLength;
+    private long fingerprint;
+
+    /**
+     * Creates chunker hashing chunks with specified algorithm.
+     *
+     * @param algorithm algorithm of chunk hashes.
+     */
+    ContentChunker(final HashAlgorithm algorithm) {
+        this.hasher = algorithm.newHasher();
+        this.hashLength = algorithm.getLength();
+        reset();
+    }
+
+    /**
+     * Passes next bytes of the file. Position of {@code input} is advanced to its limit.
+     *
+     * @param input next bytes of the file.
+     */
+    void update(final ByteBuffer input) {
+        int start = input.position();
+        final int limit = input.limit();
+        for (int i = start; i < limit; i++) {
+            this.fingerprint = (this.fingerprint << 1) + GEAR[input.get(i) & 0xFF];
+            this.chunkLength++;
+            if (this.chunkLength >= MIN_CHUNK_LENGTH && (this.fingerprint & BOUNDARY_MASK) == 0
+                    || this.chunkLength == MAX_CHUNK_LENGTH) {
+                this.hasher.update(input.slice(start, i + 1 - start));
+                endChunk();
+                start = i + 1;
+            }
+        }
+        this.hasher.update(input.slice(start, limit - start));
+        input.position(limit);
+    }
+
+    /**
+     * Finishes the last chunk and returns all chunks of the file.
+     * Chunker is reset for the next file.
+     *
+     * @return chunks of the file.
+     */
+    ChunkList finish() {
+        if (this.chunkLength > 0) {
+            endChunk();
+        }
+        final ChunkList result = this.chunks;
+        reset();
+        return result;
+    }
+
+    /**
+     * Discards all passed bytes.
+     */
+    void reset() {
+        this.hasher.reset();
+        this.chunks = new ChunkList(this.hashLength);
+        this.chunkStart = 0;
+        this.chunkLength = 0;
+        this.fingerprint = 0;
+    }
+
+    private void endChunk() {
+        this.chunkStart += this.chunkLength;
+        this.chunks.add(this.chunkStart, this.hasher.digest());
+        this.chunkLength = 0;
+        this.fingerprint = 0;
+    }
+}
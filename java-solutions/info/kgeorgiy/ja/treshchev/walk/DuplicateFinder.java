@@ -0,0 +1,216 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Finds groups of files with equal content.
+ *
+ * Files are grouped by size first, then by cheap {@value XxHash64#NAME} hash of their first and last blocks,
+ * and only files that still collide are hashed completely.
+ * Each group of files with equal full hashes is written as lines {@code "<hex hash> <path>"}
+ * followed by an empty line. Files inside a group keep the order of the input.
+ * Every file is considered once: paths to a file already submitted, such as repeated entries of the input,
+ * files reached both through a directory and explicitly, and hard or symbolic links, are skipped,
+ * so a file is never reported as a duplicate of itself.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class DuplicateFinder implements FileSink {
+
+    private static final int SAMPLE_LENGTH = 1 << 12;
+
+    private final ExecutorService workers;
+    private final ThreadLocal<FileHasher> hashers;
+    private final ThreadLocal<Sampler> samplers;
+    private final HashCache cache;
+    private final BufferedWriter output;
+    private final HashWriter writer;
+    private final WalkStatistics statistics;
+    private final Map<Long, List<String>> bySize = new LinkedHashMap<>();
+    private final Set<Object> submitted = new HashSet<>();
+
+    private record Key(long size, ByteBuffer hash) {
+    }
+
+    /**
+     * Creates finder with {@code threadsCount} workers writing groups into {@code output}.
+     *
+     * @param threadsCount how many threads should read files.
+     * @param algorithm    algorithm of full hash.
+     * @param cache        cache of full hashes, or {@code null} if every candidate should be hashed.
+     * @param output       where to write groups of duplicates.
+     * @param statistics   where to record metrics.
+     */
+    DuplicateFinder(final int threadsCount,
+                    final HashAlgorithm algorithm,
+                    final HashCache cache,
+                    final BufferedWriter output,
+                    final WalkStatistics statistics) {
+        if (threadsCount <= 0) {
+            throw new IllegalArgumentException("Expected at least 1 thread to hash files, found: " + threadsCount);
+        }
+        this.workers = Executors.newFixedThreadPool(threadsCount);
+        this.hashers = ThreadLocal.withInitial(() -> new FileHasher(algorithm, false, statistics));
+        this.samplers = ThreadLocal.withInitial(() -> new Sampler(statistics));
+        this.cache = cache;
+        this.output = output;
+        this.writer = new HashWriter(output, algorithm);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void submit(final String file) {
+        final long size;
+        try {
+            final Path path = Path.of(file);
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            // file key identifies the file itself where supported, the real path otherwise
+            final Object key = attributes.fileKey() != null ? attributes.fileKey() : path.toRealPath();
+            if (!this.submitted.add(key)) {
+                return;
+            }
+            size = attributes.size();
+        } catch (InvalidPathException e) {
+            System.err.println("Wrong file path! Found \"" + file + "\"!");
+            this.statistics.addError(e);
+            return;
+        } catch (IOException e) {
+            System.err.println("Couldn't read the file \"" + file + "\"!");
+            this.statistics.addError(e);
+            return;
+        }
+        this.bySize.computeIfAbsent(size, s -> new ArrayList<>()).add(file);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        final Map<Key, List<String>> bySample = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<String>> group : this.bySize.entrySet()) {
+            final long size = group.getKey();
+            final List<String> files = group.getValue();
+            if (files.size() < 2) {
+                continue;
+            }
+            if (size <= 2 * SAMPLE_LENGTH) {
+                // sample would read the whole file anyway
+                bySample.put(new Key(size, ByteBuffer.allocate(0)), files);
+            } else {
+                regroup(files, file -> this.samplers.get().sample(file, size), size, bySample);
+            }
+        }
+        this.bySize.clear();
+        this.submitted.clear();
+
+        final Map<Key, List<String>> byHash = new LinkedHashMap<>();
+        for (Map.Entry<Key, List<String>> group : bySample.entrySet()) {
+            if (group.getValue().size() > 1) {
+                regroup(group.getValue(), this::hash, group.getKey().size(), byHash);
+            }
+        }
+
+        for (Map.Entry<Key, List<String>> group : byHash.entrySet()) {
+            final List<String> files = group.getValue();
+            if (files.size() > 1) {
+                final byte[] hash = group.getKey().hash().array();
+                for (String file : files) {
+                    this.writer.write(hash, file);
+                }
+                this.output.newLine();
+            }
+        }
+    }
+
+    private byte[] hash(final String file) {
+        final FileHasher hasher = this.hashers.get();
+        return this.cache == null ? hasher.getHashOfFile(file) : this.cache.getHash(file, hasher);
+    }
+
+    private void regroup(final List<String> files,
+                         final Function<String, byte[]> hash,
+                         final long size,
+                         final Map<Key, List<String>> groups) throws IOException {
+        final List<Future<byte[]>> hashes = new ArrayList<>(files.size());
+        for (String file : files) {
+            hashes.add(this.workers.submit(() -> hash.apply(file)));
+        }
+        for (int i = 0; i < files.size(); i++) {
+            final byte[] fileHash;
+            try {
+                fileHash = hashes.get(i).get();
+            } catch (ExecutionException e) {
+                System.err.println("Couldn't hash the file \"" + files.get(i) + "\"! " + e.getCause());
+                this.statistics.addError(e.getCause());
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for hash of \"" + files.get(i) + "\"", e);
+            }
+            if (fileHash != null) {
+                groups.computeIfAbsent(new Key(size, ByteBuffer.wrap(fileHash)), k -> new ArrayList<>())
+                        .add(files.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        HashingPipeline.shutdown(this.workers);
+    }
+
+    private static class Sampler {
+        private final Hasher hasher = new XxHash64();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(SAMPLE_LENGTH);
+        private final WalkStatistics statistics;
+
+        Sampler(final WalkStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        byte[] sample(final String file, final long size) {
+            try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+                read(channel, 0);
+                read(channel, size - SAMPLE_LENGTH);
+                return this.hasher.digest();
+            } catch (InvalidPathException | IOException e) {
+                System.err.println("Couldn't read the file \"" + file + "\"!");
+                this.statistics.addError(e);
+                this.hasher.reset();
+                return null;
+            }
+        }
+
+        private void read(final FileChannel channel, final long position) throws IOException {
+            final long start = System.nanoTime();
+            this.buffer.clear();
+            while (this.buffer.hasRemaining()) {
+                if (channel.read(this.buffer, position + this.buffer.position()) < 0) {
+                    break;
+                }
+            }
+            final long end = System.nanoTime();
+            this.statistics.addRead(this.buffer.position(), end - start);
+            this.buffer.flip();
+            this.hasher.update(this.buffer);
+            this.statistics.addHashing(System.nanoTime() - end);
+        }
+    }
+}
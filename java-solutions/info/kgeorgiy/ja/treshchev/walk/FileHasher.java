@@ -0,0 +1,137 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Computes hashes of files through {@link FileChannel}.
+ *
+ * Small files are read into a direct buffer that is reused between files,
+ * large files are memory-mapped region by region.
+ * In both cases bytes are passed to {@link Hasher#update(ByteBuffer)}
+ * without copying them to the heap.
+ * Optionally the same bytes are split into content-defined chunks by {@link ContentChunker}.
+ * Instance is not thread-safe: every worker should have its own hasher.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class FileHasher {
+
+    private static final long MAPPING_THRESHOLD = 1L << 24;
+    private static final long MAPPED_REGION_LENGTH = 1L << 28;
+
+    private final Hasher hasher;
+    private final ContentChunker chunker;
+    private final ByteBuffer buffer;
+    private final WalkStatistics statistics;
+    private ChunkList chunks;
+
+    /**
+     * Creates hasher using specified algorithm.
+     *
+     * @param algorithm  algorithm of hash.
+     * @param chunked    whether files should also be split into chunks.
+     * @param statistics where to record metrics.
+     */
+    FileHasher(final HashAlgorithm algorithm, final boolean chunked, final WalkStatistics statistics) {
+        this.hasher = algorithm.newHasher();
+        this.chunker = chunked ? new ContentChunker(algorithm) : null;
+        this.buffer = ByteBuffer.allocateDirect(Walk.BUFFER_LENGTH);
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns hash of {@code file}.
+     * If file could not be read then {@code null} is returned.
+     * In chunked mode chunks of the file are available through {@link #takeChunks()}.
+     *
+     * @param file path of the file.
+     * @return hash of the file.
+     */
+    byte[] getHashOfFile(final String file) {
+        final long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size >= MAPPING_THRESHOLD) {
+                updateMapped(channel, size);
+            } else {
+                updateBuffered(channel);
+            }
+            if (this.chunker != null) {
+                this.chunks = this.chunker.finish();
+            }
+            final byte[] hash = this.hasher.digest();
+            this.statistics.addFile(System.nanoTime() - start);
+            return hash;
+        } catch (FileNotFoundException e) {
+            System.err.println("Couldn't found the file \"" + file + "\"!");
+            this.statistics.addError(e);
+        } catch (InvalidPathException e) {
+            System.err.println("Wrong file path! Found \"" + file + "\"!");
+            this.statistics.addError(e);
+        } catch (IOException e) {
+            System.err.println("Couldn't read the file \"" + file + "\"!");
+            this.statistics.addError(e);
+        } finally {
+            this.hasher.reset();
+            if (this.chunker != null) {
+                this.chunker.reset();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns chunks of the file hashed last and forgets them.
+     *
+     * @return chunks of the last successfully hashed file, or {@code null} if there are none.
+     */
+    ChunkList takeChunks() {
+        final ChunkList result = this.chunks;
+        this.chunks = null;
+        return result;
+    }
+
+    private void update(final ByteBuffer input) {
+        if (this.chunker != null) {
+            this.chunker.update(input.duplicate());
+        }
+        this.hasher.update(input);
+    }
+
+    private void updateBuffered(final FileChannel channel) throws IOException {
+        this.buffer.clear();
+        while (true) {
+            final long start = System.nanoTime();
+            final int read = channel.read(this.buffer);
+            final long end = System.nanoTime();
+            this.statistics.addRead(Math.max(read, 0), end - start);
+            if (read < 0) {
+                break;
+            }
+            this.buffer.flip();
+            update(this.buffer);
+            this.buffer.clear();
+            this.statistics.addHashing(System.nanoTime() - end);
+        }
+    }
+
+    private void updateMapped(final FileChannel channel, final long size) throws IOException {
+        for (long position = 0; position < size; position += MAPPED_REGION_LENGTH) {
+            final long length = Math.min(MAPPED_REGION_LENGTH, size - position);
+            final long start = System.nanoTime();
+            final ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            final long end = System.nanoTime();
+            this.statistics.addRead(length, end - start);
+            update(region);
+            this.statistics.addHashing(System.nanoTime() - end);
+        }
+        // file could grow after size was taken
+        updateBuffered(channel.position(size));
+    }
+}
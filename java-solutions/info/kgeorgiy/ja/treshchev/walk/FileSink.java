@@ -0,0 +1,32 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.IOException;
+
+/**
+ * Consumer of files listed in the input of {@link Walk} or found in walked directories.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+interface FileSink extends AutoCloseable {
+
+    /**
+     * Accepts next file.
+     *
+     * @param file path of the file as it should be written to the output.
+     * @throws IOException if writing of results fails.
+     */
+    void submit(String file) throws IOException;
+
+    /**
+     * Finishes processing of all accepted files and writes remaining results.
+     *
+     * @throws IOException if writing of results fails.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Releases threads used by the sink.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,74 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Service provider interface of hash algorithms used by {@link Walk}.
+ *
+ * Built-in algorithms are fast non-cryptographic {@value XxHash64#NAME} and {@value Murmur3Hash128#NAME}
+ * and every {@link MessageDigest} supported by installed security providers (for example SHA-256, SHA-1, MD5).
+ * Other algorithms could be plugged in with {@link ServiceLoader}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public interface HashAlgorithm {
+
+    /**
+     * Name of algorithm used by default.
+     */
+    String DEFAULT = "SHA-256";
+
+    /**
+     * Returns name of the algorithm as it is specified in command line.
+     *
+     * @return name of the algorithm.
+     */
+    String getName();
+
+    /**
+     * Returns length of hash in bytes.
+     *
+     * @return length of hash.
+     */
+    int getLength();
+
+    /**
+     * Creates new independent state of the hash function.
+     *
+     * @return new hasher.
+     */
+    Hasher newHasher();
+
+    /**
+     * Returns hash written for files that couldn't be read.
+     *
+     * @return hex string of zeroes of the hash length.
+     */
+    default String getErrorHash() {
+        return "0".repeat(2 * getLength());
+    }
+
+    /**
+     * Finds algorithm by case-insensitive name.
+     *
+     * @param name name of the algorithm.
+     * @return found algorithm.
+     * @throws NoSuchAlgorithmException if there is no algorithm with such name.
+     */
+    static HashAlgorithm forName(final String name) throws NoSuchAlgorithmException {
+        for (HashAlgorithm algorithm : List.of(new XxHash64.Algorithm(), new Murmur3Hash128.Algorithm())) {
+            if (algorithm.getName().equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        for (HashAlgorithm algorithm : ServiceLoader.load(HashAlgorithm.class)) {
+            if (algorithm.getName().equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        return new MessageDigestHasher.Algorithm(name);
+    }
+}
@@ -0,0 +1,227 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent cache of file hashes.
+ *
+ * Entry is keyed by the path of the file and is valid while size, last modification time
+ * and file key (inode where file system provides it) of the file stay the same.
+ * Valid entries are answered without opening the file.
+ * Cache is stored in a compact binary file that is loaded once on startup
+ * and rewritten atomically by {@link #save()}.
+ * Entries for files that were not seen or could not be hashed during the run are dropped on save,
+ * unless the run continues an interrupted one, see {@link #retainLoaded()}.
+ * Cache remembers the algorithm of its hashes and is discarded when another algorithm is used.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class HashCache {
+
+    private static final int MAGIC = 0x57414c4b;
+    private static final int VERSION = 2;
+
+    private final Path file;
+    private final String algorithm;
+    private final Map<String, Entry> loaded;
+    private final Map<String, Entry> actual;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private record Entry(long size, long modified, String fileKey, byte[] hash) {
+        boolean matches(final BasicFileAttributes attributes) {
+            return size == attributes.size()
+                    && modified == attributes.lastModifiedTime().toMillis()
+                    && fileKey.equals(fileKeyOf(attributes));
+        }
+    }
+
+    private HashCache(final Path file, final String algorithm, final Map<String, Entry> loaded) {
+        this.file = file;
+        this.algorithm = algorithm;
+        this.loaded = loaded;
+        this.actual = new ConcurrentHashMap<>(loaded.size());
+    }
+
+    /**
+     * Loads cache from {@code file}.
+     * If file doesn't exist, was built by another algorithm or {@code invalidate} is set,
+     * then the cache starts empty.
+     * Cache is only an optimization, so a file that couldn't be read, has unknown format or is truncated,
+     * as it could be after a crash, is reported and the cache starts empty too.
+     *
+     * @param file       where the cache is stored.
+     * @param algorithm  algorithm of cached hashes.
+     * @param invalidate whether previously stored entries should be discarded.
+     * @return loaded cache.
+     */
+    static HashCache load(final Path file, final HashAlgorithm algorithm, final boolean invalidate) {
+        if (invalidate || Files.notExists(file)) {
+            return new HashCache(file, algorithm.getName(), Map.of());
+        }
+        try {
+            return new HashCache(file, algorithm.getName(), read(file, algorithm));
+        } catch (IOException e) {
+            System.err.println("Couldn't read hash cache \"" + file + "\", starting with empty cache: " + e.getMessage());
+            return new HashCache(file, algorithm.getName(), Map.of());
+        }
+    }
+
+    private static Map<String, Entry> read(final Path file, final HashAlgorithm algorithm) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("unknown format");
+            }
+            if (!algorithm.getName().equals(in.readUTF())) {
+                return Map.of();
+            }
+            final int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("negative count of entries");
+            }
+            final Map<String, Entry> entries = new ConcurrentHashMap<>(Math.min(count, 1 << 16));
+            for (int i = 0; i < count; i++) {
+                final String path = in.readUTF();
+                final long size = in.readLong();
+                final long modified = in.readLong();
+                final String fileKey = in.readUTF();
+                final byte[] hash = new byte[in.readUnsignedByte()];
+                in.readFully(hash);
+                entries.put(path, new Entry(size, modified, fileKey, hash));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Returns hash of {@code file} from the cache or computes it using {@code hasher}.
+     *
+     * @param file   path of the file.
+     * @param hasher hasher used on cache miss.
+     * @return hash of the file, or {@code null} if it couldn't be hashed.
+     */
+    byte[] getHash(final String file, final FileHasher hasher) {
+        final Path path;
+        final BasicFileAttributes before;
+        try {
+            path = Path.of(file);
+            before = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (InvalidPathException | IOException e) {
+            this.misses.incrementAndGet();
+            return hasher.getHashOfFile(file);
+        }
+
+        final Entry cached = this.loaded.get(file);
+        if (cached != null && cached.matches(before)) {
+            this.hits.incrementAndGet();
+            this.actual.put(file, cached);
+            return cached.hash();
+        }
+
+        this.misses.incrementAndGet();
+        final byte[] hash = hasher.getHashOfFile(file);
+        this.actual.remove(file);
+        if (hash != null) {
+            try {
+                final BasicFileAttributes after = Files.readAttributes(path, BasicFileAttributes.class);
+                final Entry entry = new Entry(after.size(), after.lastModifiedTime().toMillis(),
+                        fileKeyOf(after), hash);
+                // file changed while it was hashed, so the hash can't be trusted next time
+                if (entry.matches(before)) {
+                    this.actual.put(file, entry);
+                }
+            } catch (NoSuchFileException ignored) {
+                // file was removed after hashing, nothing to remember
+            } catch (IOException e) {
+                System.err.println("Couldn't read attributes of \"" + file + "\" to cache its hash!");
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Keeps loaded entries that are not seen during this run.
+     * Run continuing an interrupted one skips files hashed before the interruption,
+     * and their entries should survive.
+     */
+    void retainLoaded() {
+        this.loaded.forEach(this.actual::putIfAbsent);
+    }
+
+    /**
+     * Writes entries seen during this run to the cache file.
+     * File is synced before it replaces the previous one, so it is complete after a crash.
+     * Could be called several times during the run.
+     *
+     * @throws IOException if cache file couldn't be written.
+     */
+    void save() throws IOException {
+        final Path parent = this.file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final Path temporary = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(this.algorithm);
+                out.writeInt(this.actual.size());
+                for (Map.Entry<String, Entry> e : this.actual.entrySet()) {
+                    final Entry entry = e.getValue();
+                    out.writeUTF(e.getKey());
+                    out.writeLong(entry.size());
+                    out.writeLong(entry.modified());
+                    out.writeUTF(entry.fileKey());
+                    out.writeByte(entry.hash().length);
+                    out.write(entry.hash());
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Returns how many hashes were answered from the cache.
+     *
+     * @return count of cache hits.
+     */
+    long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns how many files had to be hashed.
+     *
+     * @return count of cache misses.
+     */
+    long getMisses() {
+        return this.misses.get();
+    }
+
+    private static String fileKeyOf(final BasicFileAttributes attributes) {
+        return Objects.toString(attributes.fileKey(), "");
+    }
+}
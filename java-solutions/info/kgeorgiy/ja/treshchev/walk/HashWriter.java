@@ -0,0 +1,109 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes result lines {@code "<hex hash> <path>"}
+ * and chunk lines {@code "  <hex hash> <offset> <length>"}.
+ *
+ * Hash is encoded with a lookup table into a reused {@code char[]}
+ * and written to the underlying writer together with the path,
+ * so writing a line doesn't create intermediate strings.
+ * Instance is not thread-safe.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class HashWriter {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final char[] BYTE_TO_HEX = new char[2 * 256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            BYTE_TO_HEX[2 * i] = HEX_DIGITS[i >>> 4];
+            BYTE_TO_HEX[2 * i + 1] = HEX_DIGITS[i & 0xF];
+        }
+    }
+
+    private final Writer writer;
+    private final char[] hex;
+    private final byte[] chunkHash;
+    private final char[] digits = new char[20];
+    private final char[] errorHash;
+
+    /**
+     * Creates writer of hashes of specified algorithm.
+     *
+     * @param writer    where to write lines.
+     * @param algorithm algorithm of written hashes.
+     */
+    HashWriter(final Writer writer, final HashAlgorithm algorithm) {
+        this.writer = writer;
+        this.hex = new char[2 * algorithm.getLength()];
+        this.chunkHash = new byte[algorithm.getLength()];
+        this.errorHash = algorithm.getErrorHash().toCharArray();
+    }
+
+    /**
+     * Writes line with hash of file.
+     *
+     * @param hash hash of the file, or {@code null} if the file couldn't be hashed.
+     * @param file path of the file.
+     * @throws IOException if underlying writer fails.
+     */
+    void write(final byte[] hash, final String file) throws IOException {
+        if (hash == null) {
+            this.writer.write(this.errorHash);
+        } else {
+            this.writer.write(this.hex, 0, encode(hash, this.hex));
+        }
+        this.writer.write(' ');
+        this.writer.write(file);
+        this.writer.write(System.lineSeparator());
+    }
+
+    /**
+     * Writes one line per chunk, indented to tell chunk lines from file lines.
+     *
+     * @param chunks chunks of the last written file.
+     * @throws IOException if underlying writer fails.
+     */
+    void writeChunks(final ChunkList chunks) throws IOException {
+        for (int i = 0; i < chunks.size(); i++) {
+            chunks.getHash(i, this.chunkHash);
+            this.writer.write("  ");
+            this.writer.write(this.hex, 0, encode(this.chunkHash, this.hex));
+            this.writer.write(' ');
+            writeNumber(chunks.getOffset(i));
+            this.writer.write(' ');
+            writeNumber(chunks.getLength(i));
+            this.writer.write(System.lineSeparator());
+        }
+    }
+
+    private void writeNumber(long value) throws IOException {
+        int position = this.digits.length;
+        do {
+            this.digits[--position] = HEX_DIGITS[(int) (value % 10)];
+            value /= 10;
+        } while (value > 0);
+        this.writer.write(this.digits, position, this.digits.length - position);
+    }
+
+    /**
+     * Writes hex representation of {@code bytes} into {@code out}.
+     *
+     * @param bytes bytes to encode.
+     * @param out   where to write hex digits, should have at least {@code 2 * bytes.length} chars.
+     * @return count of written chars.
+     */
+    static int encode(final byte[] bytes, final char[] out) {
+        for (int i = 0; i < bytes.length; i++) {
+            final int index = 2 * (bytes[i] & 0xFF);
+            out[2 * i] = BYTE_TO_HEX[index];
+            out[2 * i + 1] = BYTE_TO_HEX[index + 1];
+        }
+        return 2 * bytes.length;
+    }
+}
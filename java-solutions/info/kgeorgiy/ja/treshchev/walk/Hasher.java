@@ -0,0 +1,34 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental hash function state.
+ *
+ * Instances are not thread-safe and are reused for many files:
+ * {@link #digest()} finishes current hash and resets the state.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public interface Hasher {
+
+    /**
+     * Updates hash with remaining bytes of {@code input}.
+     * Position of {@code input} is advanced to its limit.
+     *
+     * @param input bytes to hash.
+     */
+    void update(ByteBuffer input);
+
+    /**
+     * Finishes hash computation and resets the state.
+     *
+     * @return hash of all bytes passed since last reset.
+     */
+    byte[] digest();
+
+    /**
+     * Discards all bytes passed since last reset.
+     */
+    void reset();
+}
@@ -0,0 +1,184 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes files on several worker threads and writes results in submission order.
+ *
+ * Every worker owns its own {@link FileHasher} with its own hash state and buffers
+ * and hashes one file at a time with blocking reads.
+ * At most {@code window} files are in flight at the same time,
+ * so memory stays bounded regardless of how many files are submitted.
+ * Completed results at the head of the window are written as soon as they are ready.
+ * In chunked mode a large file has millions of chunks, so the window is also bounded by chunks:
+ * while files waiting to be written hold more than {@value #MAX_PENDING_CHUNKS} chunks,
+ * workers don't start new files except the next one to be written.
+ * Chunks in memory are then bounded by that count and chunks of files being hashed, one per worker.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class HashingPipeline implements FileSink {
+
+    private static final int FILES_PER_WORKER = 16;
+    private static final long MAX_PENDING_CHUNKS = 1 << 20;
+
+    private final ExecutorService workers;
+    private final ThreadLocal<FileHasher> hashers;
+    private final HashCache cache;
+    private final Queue<Task> pending;
+    private final int window;
+    private final HashWriter writer;
+    private final WalkStatistics statistics;
+    private final Object chunksLock = new Object();
+    private long pendingChunks;
+    private long written;
+    private long submitted;
+
+    private record Task(String file, Future<Result> result) {
+    }
+
+    private record Result(byte[] hash, ChunkList chunks) {
+    }
+
+    /**
+     * Creates pipeline with {@code threadsCount} workers writing results into {@code writer}.
+     *
+     * @param threadsCount how many threads should hash files.
+     * @param algorithm    algorithm of hash.
+     * @param chunked      whether chunks of files should be written after file hashes.
+     * @param cache        cache of hashes, or {@code null} if every file should be hashed.
+     * @param writer       where to write result lines.
+     * @param statistics   where to record metrics.
+     */
+    HashingPipeline(final int threadsCount,
+                    final HashAlgorithm algorithm,
+                    final boolean chunked,
+                    final HashCache cache,
+                    final BufferedWriter writer,
+                    final WalkStatistics statistics) {
+        if (threadsCount <= 0) {
+            throw new IllegalArgumentException("Expected at least 1 thread to hash files, found: " + threadsCount);
+        }
+        this.hashers = ThreadLocal.withInitial(() -> new FileHasher(algorithm, chunked, statistics));
+        this.cache = cache;
+        this.workers = Executors.newFixedThreadPool(threadsCount);
+        this.window = threadsCount * FILES_PER_WORKER;
+        this.pending = new ArrayDeque<>(this.window);
+        this.writer = new HashWriter(writer, algorithm);
+        this.statistics = statistics;
+    }
+
+    /**
+     * Schedules hashing of {@code file}.
+     * Blocks while the window of files in flight is full.
+     *
+     * @param file path of file to hash.
+     * @throws IOException if writing of completed results fails.
+     */
+    @Override
+    public void submit(final String file) throws IOException {
+        if (this.pending.size() == this.window) {
+            writeHead();
+        }
+        final long index = this.submitted++;
+        this.pending.add(new Task(file, this.workers.submit(() -> hash(file, index))));
+        while (!this.pending.isEmpty() && this.pending.peek().result().isDone()) {
+            writeHead();
+        }
+    }
+
+    private Result hash(final String file, final long index) throws InterruptedException {
+        synchronized (this.chunksLock) {
+            // the next file to be written is never held back, so the pipeline can't stall
+            while (this.pendingChunks > MAX_PENDING_CHUNKS && this.written < index) {
+                this.chunksLock.wait();
+            }
+        }
+        final FileHasher hasher = this.hashers.get();
+        final byte[] hash = this.cache == null ? hasher.getHashOfFile(file) : this.cache.getHash(file, hasher);
+        final ChunkList chunks = hasher.takeChunks();
+        if (chunks != null) {
+            synchronized (this.chunksLock) {
+                this.pendingChunks += chunks.size();
+            }
+        }
+        return new Result(hash, chunks);
+    }
+
+    /**
+     * Waits for every submitted file and writes remaining results.
+     * More files could be submitted after that.
+     *
+     * @throws IOException if writing of results fails.
+     */
+    @Override
+    public void finish() throws IOException {
+        while (!this.pending.isEmpty()) {
+            writeHead();
+        }
+    }
+
+    private void writeHead() throws IOException {
+        final Task task = this.pending.poll();
+        Result result;
+        try {
+            result = task.result().get();
+        } catch (ExecutionException e) {
+            System.err.println("Couldn't hash the file \"" + task.file() + "\"! " + e.getCause());
+            this.statistics.addError(e.getCause());
+            result = new Result(null, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for hash of \"" + task.file() + "\"", e);
+        }
+        this.writer.write(result.hash(), task.file());
+        if (result.chunks() != null) {
+            this.writer.writeChunks(result.chunks());
+        }
+        synchronized (this.chunksLock) {
+            this.written++;
+            if (result.chunks() != null) {
+                this.pendingChunks -= result.chunks().size();
+            }
+            this.chunksLock.notifyAll();
+        }
+    }
+
+    /**
+     * Stops worker threads. Files that were not written yet are cancelled.
+     */
+    @Override
+    public void close() {
+        shutdown(this.workers);
+    }
+
+    /**
+     * Cancels tasks of {@code workers} and waits until its threads stop.
+     *
+     * @param workers thread pool to stop.
+     */
+    static void shutdown(final ExecutorService workers) {
+        workers.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (workers.awaitTermination(1L, TimeUnit.DAYS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
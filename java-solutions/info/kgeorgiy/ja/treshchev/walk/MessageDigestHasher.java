@@ -0,0 +1,74 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * {@link Hasher} computing {@link MessageDigest}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class MessageDigestHasher implements Hasher {
+
+    private final MessageDigest messageDigest;
+
+    private MessageDigestHasher(final MessageDigest messageDigest) {
+        this.messageDigest = messageDigest;
+    }
+
+    @Override
+    public void update(final ByteBuffer input) {
+        this.messageDigest.update(input);
+    }
+
+    @Override
+    public byte[] digest() {
+        return this.messageDigest.digest();
+    }
+
+    @Override
+    public void reset() {
+        this.messageDigest.reset();
+    }
+
+    /**
+     * {@link HashAlgorithm} of {@link MessageDigest} with specified name.
+     */
+    static class Algorithm implements HashAlgorithm {
+
+        private final String name;
+        private final int length;
+
+        /**
+         * Creates algorithm of {@link MessageDigest} with name {@code name}.
+         *
+         * @param name name of digest algorithm.
+         * @throws NoSuchAlgorithmException if digest isn't supported.
+         */
+        Algorithm(final String name) throws NoSuchAlgorithmException {
+            final MessageDigest messageDigest = MessageDigest.getInstance(name);
+            this.name = messageDigest.getAlgorithm();
+            this.length = messageDigest.getDigestLength();
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public int getLength() {
+            return this.length;
+        }
+
+        @Override
+        public Hasher newHasher() {
+            try {
+                return new MessageDigestHasher(MessageDigest.getInstance(this.name));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Digest " + this.name + " has become unavailable", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Pure Java implementation of 128-bit x64 MurmurHash3 with zero seed.
+ * Hash is written as two little-endian halves, the same way Guava does.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class Murmur3Hash128 extends BlockHasher {
+
+    /**
+     * Name of the algorithm.
+     */
+    static final String NAME = "MURMUR3-128";
+
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+    private static final int BLOCK_LENGTH = 16;
+
+    private long h1;
+    private long h2;
+
+    Murmur3Hash128() {
+        super(BLOCK_LENGTH);
+    }
+
+    @Override
+    protected void processBlock(final ByteBuffer input, final int offset) {
+        this.h1 ^= mixK1(input.getLong(offset));
+        this.h1 = Long.rotateLeft(this.h1, 27) + this.h2;
+        this.h1 = this.h1 * 5 + 0x52DCE729;
+
+        this.h2 ^= mixK2(input.getLong(offset + 8));
+        this.h2 = Long.rotateLeft(this.h2, 31) + this.h1;
+        this.h2 = this.h2 * 5 + 0x38495AB5;
+    }
+
+    @Override
+    protected byte[] finish(final ByteBuffer tail, final long total) {
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = tail.limit() - 1; i >= 8; i--) {
+            k2 = (k2 << 8) | (tail.get(i) & 0xFFL);
+        }
+        for (int i = Math.min(tail.limit(), 8) - 1; i >= 0; i--) {
+            k1 = (k1 << 8) | (tail.get(i) & 0xFFL);
+        }
+        long hash1 = this.h1 ^ mixK1(k1) ^ total;
+        long hash2 = this.h2 ^ mixK2(k2) ^ total;
+
+        hash1 += hash2;
+        hash2 += hash1;
+        hash1 = fmix(hash1);
+        hash2 = fmix(hash2);
+        hash1 += hash2;
+        hash2 += hash1;
+        return ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(hash1).putLong(hash2).array();
+    }
+
+    @Override
+    protected void resetState() {
+        this.h1 = 0;
+        this.h2 = 0;
+    }
+
+    private static long mixK1(final long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(final long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * {@link HashAlgorithm} of {@link Murmur3Hash128}.
+     */
+    static class Algorithm implements HashAlgorithm {
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public int getLength() {
+            return 2 * Long.BYTES;
+        }
+
+        @Override
+        public Hasher newHasher() {
+            return new Murmur3Hash128();
+        }
+    }
+}
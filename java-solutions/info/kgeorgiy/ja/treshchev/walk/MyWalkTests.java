@@ -0,0 +1,279 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Tests for {@link Walk}
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub</a>)
+ */
+public class MyWalkTests {
+
+    private static final String CONTENT = "same content";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file(final Path directory, final String name) throws IOException {
+        return Files.writeString(directory.resolve(name), CONTENT);
+    }
+
+    private Path input(final String name, final Path... paths) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        for (Path path : paths) {
+            lines.add(path.toString());
+        }
+        return Files.write(this.folder.getRoot().toPath().resolve(name), lines, StandardCharsets.UTF_8);
+    }
+
+    private Path[] distinctFiles(final int count) throws IOException {
+        final Path[] files = new Path[count];
+        for (int i = 0; i < count; i++) {
+            files[i] = Files.writeString(this.folder.getRoot().toPath().resolve("file" + i), "content " + i);
+        }
+        return files;
+    }
+
+    private List<List<String>> findDuplicates(final boolean recursive, final Path... paths) throws IOException {
+        final Path input = input("input.txt", paths);
+        final Path output = this.folder.getRoot().toPath().resolve("output.txt");
+        final List<String> args = new ArrayList<>(List.of("--duplicates"));
+        if (recursive) {
+            args.add("--recursive");
+        }
+        args.addAll(List.of(input.toString(), output.toString()));
+        Walk.main(args.toArray(new String[0]));
+
+        final List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        for (String line : Files.readAllLines(output, StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) {
+                groups.add(group);
+                group = new ArrayList<>();
+            } else {
+                group.add(line.substring(line.indexOf(' ') + 1));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Testing that copies of a file are reported as duplicates
+     * @throws IOException if test files couldn't be created
+     */
+    @Test
+    public void testCopies() throws IOException {
+        final Path root = this.folder.getRoot().toPath();
+        final Path a = file(root, "a");
+        final Path b = file(root, "b");
+        Assert.assertEquals(List.of(List.of(a.toString(), b.toString())), findDuplicates(false, a, b));
+    }
+
+    /**
+     * Testing that a file listed twice is not a duplicate of itself
+     * @throws IOException if test files couldn't be created
+     */
+    @Test
+    public void testRepeatedEntry() throws IOException {
+        final Path root = this.folder.getRoot().toPath();
+        final Path a = file(root, "a");
+        Assert.assertEquals(List.of(), findDuplicates(false, a, a, root.resolve(".").resolve("a")));
+
+        final Path b = file(root, "b");
+        Assert.assertEquals(List.of(List.of(a.toString(), b.toString())), findDuplicates(false, a, b, a));
+    }
+
+    /**
+     * Testing that a file found in a directory and listed explicitly is not a duplicate of itself
+     * @throws IOException if test files couldn't be created
+     */
+    @Test
+    public void testDirectoryAndExplicitEntry() throws IOException {
+        final Path directory = Files.createDirectory(this.folder.getRoot().toPath().resolve("data"));
+        final Path a = file(directory, "a");
+        Assert.assertEquals(List.of(), findDuplicates(true, directory, a));
+    }
+
+    /**
+     * Testing that hard links to a file are not duplicates of it
+     * @throws IOException if test files couldn't be created
+     */
+    @Test
+    public void testHardLink() throws IOException {
+        final Path root = this.folder.getRoot().toPath();
+        final Path a = file(root, "a");
+        final Path link = Files.createLink(root.resolve("link"), a);
+        Assert.assertEquals(List.of(), findDuplicates(false, a, link));
+    }
+
+    /**
+     * Testing that a resumed run keeps results of checkpointed lines and rewrites the rest
+     * @throws IOException if test files couldn't be created
+     */
+    @Test
+    public void testResume() throws IOException {
+        final Path input = input("input.txt", distinctFiles(5));
+        final Path expected = this.folder.getRoot().toPath().resolve("expected.txt");
+        Walk.main(new String[]{input.toString(), expected.toString()});
+        final List<String> lines = Files.readAllLines(expected, StandardCharsets.UTF_8);
+
+        // interrupted run: two lines checkpointed, one more written partially
+        final Path output = this.folder.getRoot().toPath().resolve("output.txt");
+        final String checkpointed = lines.get(0) + System.lineSeparator() + lines.get(1) + System.lineSeparator();
+        Files.writeString(output, checkpointed + lines.get(2).substring(0, 10), StandardCharsets.UTF_8);
+        new Checkpoint(2, checkpointed.getBytes(StandardCharsets.UTF_8).length).save(Checkpoint.fileFor(output));
+
+        Walk.main(new String[]{"--checkpoint", "2", "--resume", input.toString(), output.toString()});
+        Assert.assertEquals(lines, Files.readAllLines(output, StandardCharsets.UTF_8));
+        Assert.assertTrue(Files.notExists(Checkpoint.fileFor(output)));
+    }
+
+    /**
+     * Testing that a resumed run keeps cached hashes of files hashed before the interruption
+     * @throws IOException if test files couldn't be created
+     * @throws NoSuchAlgorithmException if default algorithm is not supported
+     */
+    @Test
+    public void testResumeKeepsCache() throws IOException, NoSuchAlgorithmException {
+        final Path[] files = distinctFiles(5);
+        final Path cache = this.folder.getRoot().toPath().resolve("cache");
+        final Path output = this.folder.getRoot().toPath().resolve("output.txt");
+        final Path partial = input("partial.txt", files[0], files[1]);
+        Walk.main(new String[]{"--cache", cache.toString(), partial.toString(), output.toString()});
+        new Checkpoint(2, Files.size(output)).save(Checkpoint.fileFor(output));
+
+        final Path input = input("input.txt", files);
+        Walk.main(new String[]{"--cache", cache.toString(), "--checkpoint", "2", "--resume",
+                input.toString(), output.toString()});
+
+        final HashAlgorithm algorithm = HashAlgorithm.forName(HashAlgorithm.DEFAULT);
+        final HashCache loaded = HashCache.load(cache, algorithm, false);
+        final FileHasher hasher = new FileHasher(algorithm, false, new WalkStatistics());
+        for (Path file : files) {
+            loaded.getHash(file.toString(), hasher);
+        }
+        Assert.assertEquals(files.length, loaded.getHits());
+    }
+
+    /**
+     * Testing that cached hashes are used until their files change
+     * @throws IOException if test files couldn't be created
+     * @throws NoSuchAlgorithmException if default algorithm is not supported
+     */
+    @Test
+    public void testCacheHitsAndMisses() throws IOException, NoSuchAlgorithmException {
+        final Path[] files = distinctFiles(3);
+        final Path cacheFile = this.folder.getRoot().toPath().resolve("cache");
+        final HashAlgorithm algorithm = HashAlgorithm.forName(HashAlgorithm.DEFAULT);
+        final FileHasher hasher = new FileHasher(algorithm, false, new WalkStatistics());
+
+        final HashCache first = HashCache.load(cacheFile, algorithm, false);
+        final byte[] hash = first.getHash(files[0].toString(), hasher);
+        first.getHash(files[1].toString(), hasher);
+        first.getHash(files[2].toString(), hasher);
+        Assert.assertEquals(0, first.getHits());
+        Assert.assertEquals(3, first.getMisses());
+        first.save();
+
+        Files.writeString(files[2], "changed content");
+        final HashCache second = HashCache.load(cacheFile, algorithm, false);
+        Assert.assertArrayEquals(hash, second.getHash(files[0].toString(), hasher));
+        second.getHash(files[1].toString(), hasher);
+        Assert.assertArrayEquals(hasher.getHashOfFile(files[2].toString()), second.getHash(files[2].toString(), hasher));
+        Assert.assertEquals(2, second.getHits());
+        Assert.assertEquals(1, second.getMisses());
+
+        final HashCache cleared = HashCache.load(cacheFile, algorithm, true);
+        cleared.getHash(files[0].toString(), hasher);
+        Assert.assertEquals(0, cleared.getHits());
+    }
+
+    /**
+     * Testing that a truncated cache is discarded instead of failing the run
+     * @throws IOException if test files couldn't be created
+     */
+    @Test
+    public void testTruncatedCache() throws IOException {
+        final Path input = input("input.txt", distinctFiles(3));
+        final Path cache = this.folder.getRoot().toPath().resolve("cache");
+        final Path expected = this.folder.getRoot().toPath().resolve("expected.txt");
+        final Path output = this.folder.getRoot().toPath().resolve("output.txt");
+        Walk.main(new String[]{"--cache", cache.toString(), input.toString(), expected.toString()});
+        final byte[] content = Files.readAllBytes(cache);
+        Files.write(cache, Arrays.copyOf(content, content.length / 2));
+
+        Walk.main(new String[]{"--cache", cache.toString(), input.toString(), output.toString()});
+        Assert.assertEquals(Files.readAllLines(expected), Files.readAllLines(output));
+        Assert.assertArrayEquals(content, Files.readAllBytes(cache));
+    }
+
+    private static final String FOX = "The quick brown fox jumps over the lazy dog";
+
+    private static void assertHash(final String algorithm, final String expected, final String input)
+            throws NoSuchAlgorithmException {
+        final byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        final Hasher hasher = HashAlgorithm.forName(algorithm).newHasher();
+        hasher.update(ByteBuffer.wrap(bytes));
+        Assert.assertEquals(expected, HexFormat.of().formatHex(hasher.digest()));
+
+        // the same bytes passed in pieces crossing block boundaries
+        for (int step = 1; step < 8; step++) {
+            for (int from = 0; from < bytes.length; from += step) {
+                hasher.update(ByteBuffer.wrap(bytes, from, Math.min(step, bytes.length - from)));
+            }
+            Assert.assertEquals(expected, HexFormat.of().formatHex(hasher.digest()));
+        }
+    }
+
+    /**
+     * Testing that {@value XxHash64#NAME} gives hashes of reference implementation
+     * @throws NoSuchAlgorithmException if algorithm is not supported
+     */
+    @Test
+    public void testXxHash64() throws NoSuchAlgorithmException {
+        assertHash(XxHash64.NAME, "ef46db3751d8e999", "");
+        assertHash(XxHash64.NAME, "d24ec4f1a98c6e5b", "a");
+        assertHash(XxHash64.NAME, "fbcea83c8a378bf1", "Nobody inspects the spammish repetition");
+        assertHash(XxHash64.NAME, "0b242d361fda71bc", FOX);
+    }
+
+    /**
+     * Testing that {@value Murmur3Hash128#NAME} gives hashes of reference implementation
+     * @throws NoSuchAlgorithmException if algorithm is not supported
+     */
+    @Test
+    public void testMurmur3Hash128() throws NoSuchAlgorithmException {
+        assertHash(Murmur3Hash128.NAME, "00000000000000000000000000000000", "");
+        assertHash(Murmur3Hash128.NAME, "67f8103e694299624753ebba820bdb92", "hell");
+        assertHash(Murmur3Hash128.NAME, "6c1b07bc7bbc4be347939ac4a93c437a", FOX);
+    }
+
+    /**
+     * Testing that a hasher forgets bytes passed before reset
+     * @throws NoSuchAlgorithmException if algorithm is not supported
+     */
+    @Test
+    public void testHasherReset() throws NoSuchAlgorithmException {
+        for (String algorithm : List.of(XxHash64.NAME, Murmur3Hash128.NAME)) {
+            final Hasher hasher = HashAlgorithm.forName(algorithm).newHasher();
+            final byte[] expected = hasher.digest();
+            hasher.update(ByteBuffer.wrap(FOX.getBytes(StandardCharsets.UTF_8)));
+            hasher.reset();
+            Assert.assertArrayEquals(expected, hasher.digest());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * File visitor submitting every visited file to {@link FileSink}.
+ *
+ * Files are submitted while the tree is still being scanned,
+ * so hashing and writing of results start before the walk is finished.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class SubmittingVisitor extends SimpleFileVisitor<Path> {
+
+    private final FileSink sink;
+
+    /**
+     * Creates visitor submitting files to {@code sink}.
+     *
+     * @param sink where to submit visited files.
+     */
+    SubmittingVisitor(final FileSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+        this.sink.submit(file.toString());
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+        // sink reports unreadable file
+        this.sink.submit(file.toString());
+        return FileVisitResult.CONTINUE;
+    }
+}
@@ -1,28 +1,41 @@
 package info.kgeorgiy.ja.treshchev.walk;
 
-import java.io.*;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
-import java.security.MessageDigest;
+import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
 
 public class Walk {
 
-    private static final int HASH_LENGTH = 64;
-    public static final String ERROR_HASH = "0".repeat(HASH_LENGTH);
-    public static final int BUFFER_LENGTH = 1 << 12;
+    public static final int BUFFER_LENGTH = 1 << 16;
 
     public static void main(String[] args) {
-        if (args == null || args.length != 2 || args[0] == null || args[1] == null) {
+        if (args == null || Arrays.stream(args).anyMatch(Objects::isNull)) {
             System.err.println("Expected input and output file name!");
             return;
         }
 
-        String input = args[0];
+        final WalkOptions options;
+        try {
+            options = WalkOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + " " + WalkOptions.USAGE);
+            return;
+        }
+
+        String input = options.getInput();
         final Path outputPath;
         try {
-            outputPath = Path.of(args[1]);
+            outputPath = Path.of(options.getOutput());
         } catch (InvalidPathException e) {
             System.err.println("Wrong path of output file!");
             return;
@@ -36,50 +49,134 @@ public class Walk {
             System.err.println("Couldn't create output file" + outputPath);
         }
 
+        final HashAlgorithm algorithm;
+        try {
+            algorithm = HashAlgorithm.forName(options.getAlgorithm());
+        } catch (NoSuchAlgorithmException e) {
+            System.err.println("Couldn't support " + options.getAlgorithm() + " algorithm!");
+            return;
+        }
+
+        final HashCache cache = options.getCacheFile() == null ? null
+                : HashCache.load(options.getCacheFile(), algorithm, options.isClearCache());
+
+        final Path checkpointFile;
+        final Checkpoint checkpoint;
+        try {
+            checkpointFile = options.getCheckpointLines() > 0 ? Checkpoint.fileFor(outputPath) : null;
+            checkpoint = options.isResume() ? Checkpoint.load(checkpointFile) : null;
+        } catch (IOException e) {
+            System.err.println("Couldn't load checkpoint of " + outputPath + "! " + e.getMessage());
+            return;
+        }
+
+        final WalkStatistics statistics = new WalkStatistics();
+        boolean completed = false;
         try (BufferedReader inputFileReader = Files.newBufferedReader(Path.of(input));
-             BufferedWriter outputFileWriter = Files.newBufferedWriter(outputPath)) {
-            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+             FileChannel outputChannel = openOutput(outputPath, checkpoint);
+             BufferedWriter outputFileWriter = new BufferedWriter(
+                     Channels.newWriter(outputChannel, StandardCharsets.UTF_8), BUFFER_LENGTH);
+             FileSink sink = createSink(options, algorithm, cache, outputFileWriter, statistics)) {
+            final SubmittingVisitor visitor = options.isRecursive() ? new SubmittingVisitor(sink) : null;
+            long lines = 0;
+            if (checkpoint != null) {
+                while (lines < checkpoint.lines() && inputFileReader.readLine() != null) {
+                    lines++;
+                }
+                if (cache != null) {
+                    cache.retainLoaded();
+                }
+                System.out.println("Resuming after " + lines + " lines of input");
+            }
             String pathFile;
             while ((pathFile = inputFileReader.readLine()) != null) {
-                String hash = getHashOfFile(pathFile, messageDigest);
-
-                outputFileWriter.write(hash + " " + pathFile);
-                outputFileWriter.newLine();
+                submit(pathFile, sink, visitor);
+                lines++;
+                if (checkpointFile != null && lines % options.getCheckpointLines() == 0) {
+                    sink.finish();
+                    outputFileWriter.flush();
+                    outputChannel.force(false);
+                    // cache is saved before the checkpoint, so it always covers the checkpointed lines
+                    if (cache != null) {
+                        cache.save();
+                    }
+                    new Checkpoint(lines, outputChannel.position()).save(checkpointFile);
+                }
+            }
+            sink.finish();
+            if (cache != null) {
+                cache.save();
+                System.out.printf("Hash cache: %d hits, %d misses%n", cache.getHits(), cache.getMisses());
+                statistics.addCacheHits(cache.getHits());
             }
+            statistics.finish();
+            if (options.isStatistics()) {
+                statistics.print(System.out);
+            }
+            if (options.getStatisticsFile() != null) {
+                statistics.writeJson(options.getStatisticsFile());
+            }
+            completed = true;
         } catch (IOException e) {
             System.err.println("Could not read input or output file!");
-        } catch (NoSuchAlgorithmException e) {
-            System.err.println("Couldn't support SHA-256 algorithm!");
         } catch (InvalidPathException e) {
             System.err.println("Invalid output file name! Found " + outputPath);
         }
-    }
 
-    private static String getHashOfFile(String file, MessageDigest messageDigest) {
-        try (InputStream fileByteReader = Files.newInputStream(Path.of(file))) {
-            byte[] buffer = new byte[BUFFER_LENGTH];
-            for (int i = 0; i < BUFFER_LENGTH; i++) {
-                buffer[i] = 0;
-            }
-            int countOfBytes;
-            while ((countOfBytes = fileByteReader.read(buffer)) >= 0) {
-                messageDigest.update(buffer, 0, countOfBytes);
+        if (completed && checkpointFile != null) {
+            try {
+                Files.deleteIfExists(checkpointFile);
+            } catch (IOException e) {
+                System.err.println("Couldn't delete checkpoint " + checkpointFile + "!");
             }
-            byte[] hash = messageDigest.digest();
-            messageDigest.reset();
-            StringBuilder hashToString = new StringBuilder();
-            for (byte b : hash) {
-                String hexString = String.format("%02x", b);
-                hashToString.append(hexString);
+        }
+    }
+
+    private static FileChannel openOutput(final Path outputPath, final Checkpoint checkpoint) throws IOException {
+        if (checkpoint == null) {
+            return FileChannel.open(outputPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        final FileChannel channel = FileChannel.open(outputPath, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < checkpoint.outputBytes()) {
+                throw new IOException("Output file is shorter than its checkpoint");
             }
-            return hashToString.toString();
-        } catch (FileNotFoundException e) {
-            System.err.println("Couldn't found the file \"" + file + "\"!");
-        } catch (InvalidPathException e) {
-            System.err.println("Wrong file path! Found \"" + file + "\"!");
+            // drop results written after the checkpoint, they will be written again
+            channel.truncate(checkpoint.outputBytes());
+            channel.position(checkpoint.outputBytes());
+            return channel;
         } catch (IOException e) {
-            System.err.println("Couldn't read the file \"" + file + "\"!");
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static FileSink createSink(final WalkOptions options,
+                                       final HashAlgorithm algorithm,
+                                       final HashCache cache,
+                                       final BufferedWriter writer,
+                                       final WalkStatistics statistics) {
+        if (options.isDuplicates()) {
+            return new DuplicateFinder(options.getThreads(), algorithm, cache, writer, statistics);
+        }
+        return new HashingPipeline(options.getThreads(), algorithm, options.isChunked(), cache, writer, statistics);
+    }
+
+    private static void submit(final String pathFile,
+                               final FileSink sink,
+                               final SubmittingVisitor visitor) throws IOException {
+        if (visitor != null) {
+            try {
+                final Path path = Path.of(pathFile);
+                if (Files.isDirectory(path)) {
+                    Files.walkFileTree(path, visitor);
+                    return;
+                }
+            } catch (InvalidPathException ignored) {
+                // sink reports wrong path
+            }
         }
-        return ERROR_HASH;
+        sink.submit(pathFile);
     }
 }
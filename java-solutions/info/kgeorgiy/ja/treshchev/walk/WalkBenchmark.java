@@ -0,0 +1,228 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import info.kgeorgiy.ja.treshchev.benchmark.Benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro benchmark of hashing strategies used by {@link Walk}.
+ *
+ * Generates synthetic tree of many small files and a few huge files in a temporary directory
+ * and measures reading through {@link InputStream}, through {@link FileChannel} with a direct buffer
+ * and through memory mapping for several buffer sizes, the whole {@link FileHasher}
+ * and variants of hex encoding of hashes.
+ *
+ * Usage: {@code WalkBenchmark [count of small files [size of huge file in MiB]]}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+public class WalkBenchmark {
+
+    private static final int SMALL_FILE_LENGTH = 1 << 12;
+    private static final int HUGE_FILES = 2;
+    private static final int[] BUFFER_LENGTHS = {1 << 12, 1 << 16, 1 << 20};
+    private static final List<String> ALGORITHMS = List.of(HashAlgorithm.DEFAULT, XxHash64.NAME);
+    private static final int HEX_HASHES = 1 << 18;
+
+    @FunctionalInterface
+    private interface FileReader {
+        byte[] hash(Path file, Hasher hasher) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface HexEncoder {
+        int encode(byte[] hash);
+    }
+
+    /**
+     * Runs all benchmarks and prints results to {@link System#out}.
+     *
+     * @param args optional count of small files and size of huge file in MiB.
+     */
+    public static void main(final String[] args) {
+        final int smallFiles;
+        final int hugeFileMiB;
+        try {
+            smallFiles = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+            hugeFileMiB = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        } catch (NumberFormatException e) {
+            System.err.println("Usage: WalkBenchmark [count of small files [size of huge file in MiB]]");
+            return;
+        }
+
+        Path root = null;
+        try {
+            root = Files.createTempDirectory("walk-benchmark");
+            final List<Path> small = createFiles(root.resolve("small"), smallFiles, SMALL_FILE_LENGTH);
+            final List<Path> huge = createFiles(root.resolve("huge"), HUGE_FILES, (long) hugeFileMiB << 20);
+            for (String name : ALGORITHMS) {
+                final HashAlgorithm algorithm = HashAlgorithm.forName(name);
+                runReaders("small", small, algorithm);
+                runReaders("huge", huge, algorithm);
+            }
+            runHex();
+        } catch (IOException e) {
+            System.err.println("Couldn't create benchmark files! " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            System.err.println("Couldn't support algorithm! " + e.getMessage());
+        } finally {
+            if (root != null) {
+                delete(root);
+            }
+        }
+    }
+
+    private static List<Path> createFiles(final Path directory, final int count, final long length) throws IOException {
+        Files.createDirectories(directory);
+        final Random random = new Random(count ^ length);
+        final byte[] block = new byte[(int) Math.min(length, 1 << 20)];
+        final List<Path> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Path file = directory.resolve("file" + i);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                for (long written = 0; written < length; written += block.length) {
+                    random.nextBytes(block);
+                    channel.write(ByteBuffer.wrap(block, 0, (int) Math.min(block.length, length - written)));
+                }
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static void runReaders(final String set, final List<Path> files, final HashAlgorithm algorithm)
+            throws IOException {
+        long bytes = 0;
+        for (Path file : files) {
+            bytes += Files.size(file);
+        }
+        final Hasher hasher = algorithm.newHasher();
+        for (int length : BUFFER_LENGTHS) {
+            measure(set, algorithm, "stream byte[" + length + "]", bytes, files, hasher, streamReader(length));
+            measure(set, algorithm, "channel direct[" + length + "]", bytes, files, hasher, channelReader(length));
+        }
+        measure(set, algorithm, "mmap", bytes, files, hasher, WalkBenchmark::mapped);
+        final FileHasher fileHasher = new FileHasher(algorithm, false, new WalkStatistics());
+        measure(set, algorithm, "FileHasher", bytes, files, hasher,
+                (file, ignored) -> fileHasher.getHashOfFile(file.toString()));
+    }
+
+    private static FileReader streamReader(final int length) {
+        final byte[] buffer = new byte[length];
+        return (file, hasher) -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    hasher.update(ByteBuffer.wrap(buffer, 0, read));
+                }
+            }
+            return hasher.digest();
+        };
+    }
+
+    private static FileReader channelReader(final int length) {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        return (file, hasher) -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer.clear();
+                while (channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    hasher.update(buffer);
+                    buffer.clear();
+                }
+            }
+            return hasher.digest();
+        };
+    }
+
+    private static byte[] mapped(final Path file, final Hasher hasher) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+                hasher.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(Integer.MAX_VALUE, size - position)));
+            }
+        }
+        return hasher.digest();
+    }
+
+    private static void measure(final String set,
+                                final HashAlgorithm algorithm,
+                                final String name,
+                                final long bytes,
+                                final List<Path> files,
+                                final Hasher hasher,
+                                final FileReader reader) throws IOException {
+        final double seconds = Benchmark.measure(() -> {
+            long first = 0;
+            for (Path file : files) {
+                final byte[] hash = reader.hash(file, hasher);
+                first += hash == null ? 0 : hash[0];
+            }
+            return first;
+        }) / 1e9;
+        System.out.printf("%-6s %-12s %-24s %10.3f ms/file %10.1f MiB/s%n",
+                set, algorithm.getName(), name, seconds * 1e3 / files.size(), bytes / seconds / (1 << 20));
+    }
+
+    private static void runHex() {
+        final Random random = new Random(HEX_HASHES);
+        final byte[][] hashes = new byte[HEX_HASHES][32];
+        for (byte[] hash : hashes) {
+            random.nextBytes(hash);
+        }
+        measureHex("String.format", hashes, hash -> {
+            final StringBuilder builder = new StringBuilder();
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.length();
+        });
+        final char[] out = new char[64];
+        measureHex("lookup table", hashes, hash -> HashWriter.encode(hash, out) + out[0]);
+    }
+
+    private static void measureHex(final String name, final byte[][] hashes, final HexEncoder encoder) {
+        final double nanos = Benchmark.measure(() -> {
+            long length = 0;
+            for (byte[] hash : hashes) {
+                length += encoder.encode(hash);
+            }
+            return length;
+        });
+        System.out.printf("hex    %-37s %10.1f ns/hash%n", name, nanos / hashes.length);
+    }
+
+    private static void delete(final Path root) {
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Couldn't delete benchmark files in " + root + "! " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Command line options of {@link Walk}.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class WalkOptions {
+
+    private static final String THREADS_OPTION = "--threads";
+    private static final String RECURSIVE_OPTION = "--recursive";
+    private static final String ALGORITHM_OPTION = "--algorithm";
+    private static final String CHUNKS_OPTION = "--chunks";
+    private static final String DUPLICATES_OPTION = "--duplicates";
+    private static final String CHECKPOINT_OPTION = "--checkpoint";
+    private static final String RESUME_OPTION = "--resume";
+    private static final String STATISTICS_OPTION = "--stats";
+    private static final String STATISTICS_JSON_OPTION = "--stats-json";
+    private static final String CACHE_OPTION = "--cache";
+    private static final String CLEAR_CACHE_OPTION = "--clear-cache";
+
+    /**
+     * Description of command line arguments.
+     */
+    static final String USAGE = "Usage: Walk"
+            + " [" + THREADS_OPTION + " N]"
+            + " [" + RECURSIVE_OPTION + "]"
+            + " [" + ALGORITHM_OPTION + " SHA-256|SHA-1|MD5|" + XxHash64.NAME + "|" + Murmur3Hash128.NAME + "]"
+            + " [" + CHUNKS_OPTION + " | " + DUPLICATES_OPTION + "]"
+            + " [" + CACHE_OPTION + " <cache file> [" + CLEAR_CACHE_OPTION + "]]"
+            + " [" + CHECKPOINT_OPTION + " <lines> [" + RESUME_OPTION + "]]"
+            + " [" + STATISTICS_OPTION + "] [" + STATISTICS_JSON_OPTION + " <json file>]"
+            + " <input file> <output file>";
+
+    private int threads = 1;
+    private boolean recursive;
+    private String algorithm = HashAlgorithm.DEFAULT;
+    private boolean chunked;
+    private boolean duplicates;
+    private int checkpointLines;
+    private boolean resume;
+    private boolean statistics;
+    private Path statisticsFile;
+    private Path cacheFile;
+    private boolean clearCache;
+    private String input;
+    private String output;
+
+    private WalkOptions() {
+    }
+
+    /**
+     * Parses command line arguments.
+     *
+     * @param args arguments of command line.
+     * @return parsed options.
+     * @throws IllegalArgumentException if arguments are malformed.
+     */
+    static WalkOptions parse(final String[] args) {
+        final WalkOptions options = new WalkOptions();
+        int position = 0;
+        while (position < args.length && args[position].startsWith("--")) {
+            final String option = args[position++];
+            switch (option) {
+                case THREADS_OPTION -> options.threads = parsePositive(option, value(args, position++, option));
+                case RECURSIVE_OPTION -> options.recursive = true;
+                case ALGORITHM_OPTION -> options.algorithm = value(args, position++, option);
+                case CHUNKS_OPTION -> options.chunked = true;
+                case DUPLICATES_OPTION -> options.duplicates = true;
+                case CHECKPOINT_OPTION -> options.checkpointLines = parsePositive(option, value(args, position++, option));
+                case RESUME_OPTION -> options.resume = true;
+                case STATISTICS_OPTION -> options.statistics = true;
+                case STATISTICS_JSON_OPTION -> options.statisticsFile = parsePath(option, value(args, position++, option));
+                case CACHE_OPTION -> options.cacheFile = parsePath(option, value(args, position++, option));
+                case CLEAR_CACHE_OPTION -> options.clearCache = true;
+                default -> throw new IllegalArgumentException("Unknown option \"" + option + "\"!");
+            }
+        }
+        if (args.length - position != 2) {
+            throw new IllegalArgumentException("Expected input and output file name!");
+        }
+        if (options.clearCache && options.cacheFile == null) {
+            throw new IllegalArgumentException(CLEAR_CACHE_OPTION + " requires " + CACHE_OPTION + "!");
+        }
+        if (options.chunked && options.duplicates) {
+            throw new IllegalArgumentException(CHUNKS_OPTION + " couldn't be used with " + DUPLICATES_OPTION + "!");
+        }
+        if (options.resume && options.checkpointLines == 0) {
+            throw new IllegalArgumentException(RESUME_OPTION + " requires " + CHECKPOINT_OPTION + "!");
+        }
+        if (options.checkpointLines > 0 && options.duplicates) {
+            throw new IllegalArgumentException(CHECKPOINT_OPTION + " couldn't be used with " + DUPLICATES_OPTION + "!");
+        }
+        if (options.chunked && options.cacheFile != null) {
+            throw new IllegalArgumentException(CHUNKS_OPTION + " couldn't be used with " + CACHE_OPTION + "!");
+        }
+        options.input = args[position];
+        options.output = args[position + 1];
+        return options;
+    }
+
+    private static String value(final String[] args, final int position, final String option) {
+        if (position >= args.length) {
+            throw new IllegalArgumentException("Expected value of option " + option + "!");
+        }
+        return args[position];
+    }
+
+    private static int parsePositive(final String option, final String value) {
+        final int result;
+        try {
+            result = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected integer value of " + option + ", found: " + value);
+        }
+        if (result < 1) {
+            throw new IllegalArgumentException("Expected positive value of " + option + ", found: " + result);
+        }
+        return result;
+    }
+
+    private static Path parsePath(final String option, final String value) {
+        try {
+            return Path.of(value);
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Wrong path in option " + option + "! Found " + value);
+        }
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    boolean isRecursive() {
+        return recursive;
+    }
+
+    String getAlgorithm() {
+        return algorithm;
+    }
+
+    boolean isChunked() {
+        return chunked;
+    }
+
+    boolean isDuplicates() {
+        return duplicates;
+    }
+
+    int getCheckpointLines() {
+        return checkpointLines;
+    }
+
+    boolean isResume() {
+        return resume;
+    }
+
+    boolean isStatistics() {
+        return statistics;
+    }
+
+    Path getStatisticsFile() {
+        return statisticsFile;
+    }
+
+    Path getCacheFile() {
+        return cacheFile;
+    }
+
+    boolean isClearCache() {
+        return clearCache;
+    }
+
+    String getInput() {
+        return input;
+    }
+
+    String getOutput() {
+        return output;
+    }
+}
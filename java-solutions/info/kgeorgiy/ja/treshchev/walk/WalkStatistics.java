@@ -0,0 +1,177 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one {@link Walk} run.
+ *
+ * Collects count of processed files, including files answered from the cache of hashes,
+ * count of read bytes, histogram of per-file hash latency,
+ * time spent waiting for I/O and time spent in hash functions
+ * and count of errors by exception type.
+ * Bytes of memory-mapped files are read by page faults inside the hash function,
+ * so for them the I/O time is accounted as hashing time.
+ * Instance is thread-safe.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class WalkStatistics {
+
+    private static final int LATENCY_BUCKETS = 40;
+
+    private final long start = System.nanoTime();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder ioNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private volatile long finish;
+
+    /**
+     * Records bytes that were read from a file.
+     *
+     * @param count count of read bytes.
+     * @param nanos time spent waiting for them.
+     */
+    void addRead(final long count, final long nanos) {
+        this.bytes.add(count);
+        this.ioNanos.add(nanos);
+    }
+
+    /**
+     * Records time spent in hash functions.
+     *
+     * @param nanos time spent in hash functions.
+     */
+    void addHashing(final long nanos) {
+        this.hashNanos.add(nanos);
+    }
+
+    /**
+     * Records completely hashed file.
+     *
+     * @param nanos time from opening the file to its hash.
+     */
+    void addFile(final long nanos) {
+        this.files.increment();
+        final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        final int bucket = Math.min(LATENCY_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros | 1));
+        this.latencies.incrementAndGet(bucket);
+    }
+
+    /**
+     * Records files answered from the cache of hashes without reading them.
+     * They are counted as processed files, but not as read bytes or in the latency histogram.
+     *
+     * @param count count of cache hits.
+     */
+    void addCacheHits(final long count) {
+        this.files.add(count);
+        this.cacheHits.add(count);
+    }
+
+    /**
+     * Records error occurred during processing of a file.
+     *
+     * @param error occurred error.
+     */
+    void addError(final Throwable error) {
+        this.errors.computeIfAbsent(error.getClass().getName(), name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Marks the end of the run. Rates are computed up to this moment.
+     */
+    void finish() {
+        this.finish = System.nanoTime();
+    }
+
+    /**
+     * Prints human-readable summary.
+     *
+     * @param out where to print the summary.
+     */
+    void print(final PrintStream out) {
+        final double seconds = getSeconds();
+        out.printf("Files: %d (%.1f files/s), %d from cache%n",
+                this.files.sum(), this.files.sum() / seconds, this.cacheHits.sum());
+        out.printf("Bytes: %d (%.1f MiB/s)%n", this.bytes.sum(), this.bytes.sum() / seconds / (1 << 20));
+        out.printf("Time: %.3f s total, %.3f s waiting for I/O, %.3f s hashing (summed over threads)%n",
+                seconds, this.ioNanos.sum() / 1e9, this.hashNanos.sum() / 1e9);
+        out.println("Hash latency per file:");
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            final long count = this.latencies.get(i);
+            if (count > 0) {
+                out.printf("  < %d us: %d%n", 2L << i, count);
+            }
+        }
+        final Map<String, Long> errorCounts = getErrors();
+        if (!errorCounts.isEmpty()) {
+            out.println("Errors:");
+            errorCounts.forEach((type, count) -> out.printf("  %s: %d%n", type, count));
+        }
+    }
+
+    /**
+     * Writes all metrics as a JSON object into {@code file}.
+     *
+     * @param file where to write metrics.
+     * @throws IOException if the file couldn't be written.
+     */
+    void writeJson(final Path file) throws IOException {
+        final double seconds = getSeconds();
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("{\n");
+            writer.write("  \"seconds\": " + seconds + ",\n");
+            writer.write("  \"files\": " + this.files.sum() + ",\n");
+            writer.write("  \"cacheHits\": " + this.cacheHits.sum() + ",\n");
+            writer.write("  \"bytes\": " + this.bytes.sum() + ",\n");
+            writer.write("  \"filesPerSecond\": " + this.files.sum() / seconds + ",\n");
+            writer.write("  \"bytesPerSecond\": " + this.bytes.sum() / seconds + ",\n");
+            writer.write("  \"ioSeconds\": " + this.ioNanos.sum() / 1e9 + ",\n");
+            writer.write("  \"hashSeconds\": " + this.hashNanos.sum() / 1e9 + ",\n");
+            writer.write("  \"latencyMicrosHistogram\": {");
+            String separator = "";
+            for (int i = 0; i < LATENCY_BUCKETS; i++) {
+                final long count = this.latencies.get(i);
+                if (count > 0) {
+                    writer.write(separator + "\"" + (2L << i) + "\": " + count);
+                    separator = ", ";
+                }
+            }
+            writer.write("},\n");
+            writer.write("  \"errors\": {");
+            separator = "";
+            for (Map.Entry<String, Long> error : getErrors().entrySet()) {
+                writer.write(separator + "\"" + error.getKey() + "\": " + error.getValue());
+                separator = ", ";
+            }
+            writer.write("}\n");
+            writer.write("}\n");
+        }
+    }
+
+    private double getSeconds() {
+        final long end = this.finish == 0 ? System.nanoTime() : this.finish;
+        return Math.max(end - this.start, 1) / 1e9;
+    }
+
+    private Map<String, Long> getErrors() {
+        final Map<String, Long> result = new TreeMap<>();
+        this.errors.forEach((type, count) -> result.put(type, count.sum()));
+        return result;
+    }
+}
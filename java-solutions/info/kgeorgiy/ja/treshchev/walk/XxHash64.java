@@ -0,0 +1,118 @@
+package info.kgeorgiy.ja.treshchev.walk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pure Java implementation of 64-bit xxHash with zero seed.
+ * Hash is written in canonical big-endian form, as {@code xxhsum} prints it.
+ *
+ * @author artem (<a href="https://github.com/The-Elfinator">GitHub account</a>)
+ */
+class XxHash64 extends BlockHasher {
+
+    /**
+     * Name of the algorithm.
+     */
+    static final String NAME = "XXH64";
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+    private static final int BLOCK_LENGTH = 32;
+
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    XxHash64() {
+        super(BLOCK_LENGTH);
+        resetState();
+    }
+
+    @Override
+    protected void processBlock(final ByteBuffer input, final int offset) {
+        this.v1 = round(this.v1, input.getLong(offset));
+        this.v2 = round(this.v2, input.getLong(offset + 8));
+        this.v3 = round(this.v3, input.getLong(offset + 16));
+        this.v4 = round(this.v4, input.getLong(offset + 24));
+    }
+
+    @Override
+    protected byte[] finish(final ByteBuffer tail, final long total) {
+        long hash;
+        if (total >= BLOCK_LENGTH) {
+            hash = Long.rotateLeft(this.v1, 1) + Long.rotateLeft(this.v2, 7)
+                    + Long.rotateLeft(this.v3, 12) + Long.rotateLeft(this.v4, 18);
+            hash = mergeRound(hash, this.v1);
+            hash = mergeRound(hash, this.v2);
+            hash = mergeRound(hash, this.v3);
+            hash = mergeRound(hash, this.v4);
+        } else {
+            hash = PRIME_5;
+        }
+        hash += total;
+
+        int position = 0;
+        final int limit = tail.limit();
+        for (; position + 8 <= limit; position += 8) {
+            hash ^= round(0, tail.getLong(position));
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (position + 4 <= limit) {
+            hash ^= (tail.getInt(position) & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            position += 4;
+        }
+        for (; position < limit; position++) {
+            hash ^= (tail.get(position) & 0xFFL) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return ByteBuffer.allocate(Long.BYTES).putLong(hash).array();
+    }
+
+    @Override
+    protected void resetState() {
+        this.v1 = PRIME_1 + PRIME_2;
+        this.v2 = PRIME_2;
+        this.v3 = 0;
+        this.v4 = -PRIME_1;
+    }
+
+    private static long round(final long accumulator, final long input) {
+        return Long.rotateLeft(accumulator + input * PRIME_2, 31) * PRIME_1;
+    }
+
+    private static long mergeRound(final long accumulator, final long value) {
+        return (accumulator ^ round(0, value)) * PRIME_1 + PRIME_4;
+    }
+
+    /**
+     * {@link HashAlgorithm} of {@link XxHash64}.
+     */
+    static class Algorithm implements HashAlgorithm {
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public int getLength() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public Hasher newHasher() {
+            return new XxHash64();
+        }
+    }
+}